@@ -1,20 +1,105 @@
+import java.util.Arrays;
+
 /**
  * Enhanced Board class - handles NxN board operations only
  * Design Decision: Simplified to only support square boards for consistent game rules
+ * Design Decision: Cells live in a CellStore - a 4-bit player index per cell, packed 16 cells to a
+ * long, up to CellStore.DENSE_MAX_SIZE, hash maps sized by the moves played beyond that - and everything
+ * else is O(N) per-line state, so a sparse board never allocates anything N² in size
+ * Design Decision: The Zobrist hash is kept for all 8 rotations/reflections of the board at once,
+ * so the canonical (smallest) hash of a position and its symmetries are O(1) reads, never a rebuild
+ * Design Decision: Empty cells are also kept as an indexed set (dense array + position index),
+ * so strategies can pick a random empty cell or walk all of them in O(1) per cell, allocation-free
+ * Design Decision: Each line also tracks its total fill and its owner (the only player on it), and
+ * every player has a running sum of open-line weights, so a heuristic evaluation is an O(1) read
+ * Design Decision: Lines one move from completion are kept in a per-player threat set, and each line
+ * tracks the sum of its filled cells, so the winning cell of a threat is found by subtraction
  */
 public class Board {
-    private char[][] board;
+    private static final char EMPTY = '.';
+    
+    /**
+     * Largest supported size - cells are packed into ints as row * size + col
+     */
+    public static final int MAX_SIZE = 46340;
+    
+    /**
+     * Most players one board can hold - each cell stores its owner in 4 bits
+     */
+    public static final int MAX_PLAYERS = CellStore.MAX_PLAYERS;
+    
+    /**
+     * Symmetries of a square board, as used by transformCell: identity, rotations by 90/180/270
+     * degrees clockwise, mirror left-right, mirror top-bottom, transpose, anti-transpose
+     */
+    public static final int SYMMETRIES = 8;
+    
+    // Line owners besides a player slot
+    private static final int NO_OWNER = -1; // nobody has played on the line yet
+    private static final int SHARED = -2;   // two or more players - nobody can win it any more
+    
+    // Weight of an open line by the cells still missing: 8x per cell closer, flat beyond 5 missing
+    private static final int[] OPEN_LINE_WEIGHTS = {4096, 4096, 512, 64, 8, 1};
+    
     private int size; // NxN board, so only need one dimension
     
+    // Player registry in turn order - either given up front or filled in by first placement
+    private char[] symbols;
+    private int playerCount;
+    
+    private CellStore cells; // owner of every cell, plus the indexed empty-cell set
+    
+    // Incremental win tracking - updated by makeMove so checkWin/isFull never rescan
+    private int[][] lineCounts; // lineCounts[slot][line] = cells that player holds on the line
+    private int[] completedLines; // completedLines[slot] = lines fully held by that player
+    private int filledCells;
+    
+    // Incremental evaluation - which lines are still winnable, and by whom
+    private int[] lineFilled; // lineFilled[line] = cells held by anyone on the line
+    private int[] lineOwner;  // the only player on the line, NO_OWNER or SHARED
+    private int[] lineScores; // lineScores[slot] = sum of weights of the lines that player owns
+    private int[] ownedLines; // ownedLines[slot] = lines that player owns
+    private int emptyLines;   // lines nobody has played on
+    private long[] lineCellSum; // lineCellSum[line] = sum of the indexes of the filled cells on the line
+    
+    // Threat index: threats[slot][0..threatCount[slot]) are the lines that player can complete next
+    // move, threatIndex[slot][line] is where a line is in that list
+    private int[][] threats;
+    private int[][] threatIndex;
+    private int[] threatCount;
+    
+    private long[] hashes; // hashes[s] = Zobrist hash of the position transformed by symmetry s
+    
     public Board(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 1 and " + MAX_SIZE);
+        }
         this.size = size;
-        this.board = new char[size][size];
-        
-        // Initialize board with '.' for empty cells
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                board[i][j] = '.';
-            }
+        this.symbols = new char[2];
+        this.cells = CellStore.forSize(size);
+        this.lineCounts = new int[2][2 * size + 2];
+        this.completedLines = new int[2];
+        this.lineFilled = new int[2 * size + 2];
+        this.lineOwner = new int[2 * size + 2];
+        Arrays.fill(lineOwner, NO_OWNER);
+        this.lineScores = new int[2];
+        this.ownedLines = new int[2];
+        this.emptyLines = 2 * size + 2;
+        this.lineCellSum = new long[2 * size + 2];
+        this.threats = new int[2][2 * size + 2];
+        this.threatIndex = new int[2][2 * size + 2];
+        this.threatCount = new int[2];
+        this.hashes = new long[SYMMETRIES];
+    }
+    
+    /**
+     * Creates a board that knows the players and their turn order up front
+     * Design Decision: Lets strategies reason about every player in the rotation, not just X and O
+     */
+    public Board(int size, char... players) {
+        this(size);
+        for (char symbol : players) {
+            slotOf(symbol);
         }
     }
     
@@ -23,19 +108,38 @@ public class Board {
      */
     private Board(Board other) {
         this.size = other.size;
-        this.board = new char[size][size];
-        
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                this.board[i][j] = other.board[i][j];
-            }
+        this.symbols = other.symbols.clone();
+        this.playerCount = other.playerCount;
+        this.cells = other.cells.copy();
+        this.lineCounts = new int[other.lineCounts.length][];
+        for (int p = 0; p < lineCounts.length; p++) {
+            this.lineCounts[p] = other.lineCounts[p].clone();
+        }
+        this.completedLines = other.completedLines.clone();
+        this.lineFilled = other.lineFilled.clone();
+        this.lineOwner = other.lineOwner.clone();
+        this.lineScores = other.lineScores.clone();
+        this.ownedLines = other.ownedLines.clone();
+        this.emptyLines = other.emptyLines;
+        this.lineCellSum = other.lineCellSum.clone();
+        this.threats = new int[other.threats.length][];
+        this.threatIndex = new int[other.threatIndex.length][];
+        for (int p = 0; p < threats.length; p++) {
+            this.threats[p] = other.threats[p].clone();
+            this.threatIndex[p] = other.threatIndex[p].clone();
         }
+        this.threatCount = other.threatCount.clone();
+        this.filledCells = other.filledCells;
+        this.hashes = other.hashes.clone();
     }
     
     /**
      * Creates a deep copy of this board
      */
     public Board copy() {
+        if (Metrics.ENABLED) {
+            Metrics.recordBoardCopy();
+        }
         return new Board(this);
     }
     
@@ -53,103 +157,462 @@ public class Board {
         }
         
         // Check if cell is empty
-        return board[row][col] == '.';
+        return cells.isEmpty(row * size + col);
     }
     
     /**
      * Places a symbol on the board
+     * Returns true if this move completed a row, column or diagonal for the symbol
      */
-    public void makeMove(int row, int col, char symbol) {
-        board[row][col] = symbol;
+    public boolean makeMove(int row, int col, char symbol) {
+        int cell = row * size + col;
+        int slot = slotOf(symbol);
+        int previous = cells.owner(cell);
+        
+        if (previous != CellStore.EMPTY) {
+            // Overwriting an occupied cell - clear the previous owner first
+            updateLines(previous, row, col, -1);
+            toggleHashes(row, col, symbols[previous]);
+            filledCells--;
+        } else {
+            cells.swapEmpty(cell, size * size - filledCells - 1); // Last empty position, now the first filled one
+        }
+        
+        cells.set(cell, slot);
+        filledCells++;
+        toggleHashes(row, col, symbol);
+        return updateLines(slot, row, col, 1) > 0;
     }
     
     /**
-     * Enhanced win checking for NxN boards
-     * Design Decision: Need N in a row/column/diagonal to win
+     * makeMove for a packed cell index (row * size + col)
      */
-    public boolean checkWin(char symbol) {
-        // Check all rows
-        for (int i = 0; i < size; i++) {
-            boolean rowWin = true;
-            for (int j = 0; j < size; j++) {
-                if (board[i][j] != symbol) {
-                    rowWin = false;
-                    break;
-                }
-            }
-            if (rowWin) return true;
+    public boolean makeMove(int cell, char symbol) {
+        return makeMove(cell / size, cell % size, symbol);
+    }
+    
+    /**
+     * Removes whatever symbol occupies (row, col), restoring the cell to empty
+     * Design Decision: Lets bot strategies search by make/undo on one board instead of copying per node
+     */
+    public void undoMove(int row, int col) {
+        int cell = row * size + col;
+        int owner = cells.owner(cell);
+        
+        if (owner == CellStore.EMPTY) {
+            return; // Nothing to undo
         }
         
-        // Check all columns
-        for (int j = 0; j < size; j++) {
-            boolean colWin = true;
-            for (int i = 0; i < size; i++) {
-                if (board[i][j] != symbol) {
-                    colWin = false;
-                    break;
-                }
+        cells.clear(cell);
+        updateLines(owner, row, col, -1);
+        toggleHashes(row, col, symbols[owner]);
+        filledCells--;
+        cells.swapEmpty(cell, size * size - filledCells - 1); // First filled position, now the last empty one
+    }
+    
+    /**
+     * undoMove for a packed cell index (row * size + col)
+     */
+    public void undoMove(int cell) {
+        undoMove(cell / size, cell % size);
+    }
+    
+    /**
+     * Number of empty cells
+     */
+    public int getEmptyCount() {
+        return size * size - filledCells;
+    }
+    
+    /**
+     * The empty cell (row * size + col) at index 0..getEmptyCount() - 1 of the empty-cell set
+     * The order is arbitrary and changes as moves are made and undone
+     */
+    public int getEmptyCell(int index) {
+        return cells.emptyCellAt(index);
+    }
+    
+    /**
+     * Index of an empty cell in the empty-cell set, as getEmptyCell takes it
+     */
+    int getEmptyIndex(int cell) {
+        return cells.emptyPositionOf(cell);
+    }
+    
+    /**
+     * Moves an empty cell to another index of the empty-cell set, trading places with the cell there
+     * Design Decision: undoMove leaves the set in a different order than before the move; a search
+     * that needs the exact order back (MCTS expands children in set order) puts the cell back
+     * where getEmptyIndex found it
+     */
+    void moveEmptyCell(int cell, int index) {
+        cells.swapEmpty(cell, index);
+    }
+    
+    /**
+     * Adjusts the counters of every line through (row, col) by delta
+     * Returns how many of those lines the player now holds completely
+     */
+    private int updateLines(int slot, int row, int col, int delta) {
+        int[] counts = lineCounts[slot];
+        int cell = row * size + col;
+        int completed = bumpLine(slot, counts, row, cell, delta) + bumpLine(slot, counts, size + col, cell, delta);
+        
+        // Row and column always pass through the cell, diagonals only sometimes
+        if (row == col) {
+            completed += bumpLine(slot, counts, 2 * size, cell, delta);
+        }
+        if (row + col == size - 1) {
+            completed += bumpLine(slot, counts, 2 * size + 1, cell, delta);
+        }
+        return completed;
+    }
+    
+    private int bumpLine(int slot, int[] counts, int line, int cell, int delta) {
+        int owner = lineOwner[line];
+        if (owner >= 0) {
+            ownedLines[owner]--;
+            lineScores[owner] -= openLineWeight(lineFilled[line]);
+            if (lineFilled[line] == size - 1) {
+                removeThreat(owner, line);
             }
-            if (colWin) return true;
+        } else if (owner == NO_OWNER) {
+            emptyLines--;
         }
+        lineFilled[line] += delta;
+        lineCellSum[line] += (long) delta * cell;
         
-        // Check main diagonal (top-left to bottom-right)
-        boolean mainDiagWin = true;
-        for (int i = 0; i < size; i++) {
-            if (board[i][i] != symbol) {
-                mainDiagWin = false;
-                break;
-            }
+        if (counts[line] == size) {
+            completedLines[slot]--;
         }
-        if (mainDiagWin) return true;
+        counts[line] += delta;
         
-        // Check anti-diagonal (top-right to bottom-left)
-        boolean antiDiagWin = true;
-        for (int i = 0; i < size; i++) {
-            if (board[i][size - 1 - i] != symbol) {
-                antiDiagWin = false;
-                break;
+        owner = ownerAfterChange(slot, line, delta);
+        lineOwner[line] = owner;
+        if (owner >= 0) {
+            ownedLines[owner]++;
+            lineScores[owner] += openLineWeight(lineFilled[line]);
+            if (lineFilled[line] == size - 1) {
+                addThreat(owner, line);
             }
+        } else if (owner == NO_OWNER) {
+            emptyLines++;
         }
-        if (antiDiagWin) return true;
         
-        return false;
+        if (counts[line] == size) {
+            completedLines[slot]++;
+            return 1;
+        }
+        return 0;
     }
     
     /**
-     * Checks if the board is completely filled
+     * Owner of a line right after slot's count on it changed by delta
      */
-    public boolean isFull() {
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (board[i][j] == '.') {
-                    return false;
+    private int ownerAfterChange(int slot, int line, int delta) {
+        int filled = lineFilled[line];
+        if (filled == 0) {
+            return NO_OWNER;
+        }
+        if (lineCounts[slot][line] == filled) {
+            return slot;
+        }
+        if (delta < 0) {
+            // A shared line can fall back to a single player when a cell is removed
+            for (int p = 0; p < playerCount; p++) {
+                if (lineCounts[p][line] == filled) {
+                    return p;
                 }
             }
         }
-        return true;
+        return SHARED;
+    }
+    
+    private void addThreat(int slot, int line) {
+        int n = threatCount[slot]++;
+        threats[slot][n] = line;
+        threatIndex[slot][line] = n;
+    }
+    
+    private void removeThreat(int slot, int line) {
+        int i = threatIndex[slot][line];
+        int last = threats[slot][--threatCount[slot]];
+        threats[slot][i] = last;
+        threatIndex[slot][last] = i;
+    }
+    
+    private int openLineWeight(int filled) {
+        return OPEN_LINE_WEIGHTS[Math.min(size - filled, OPEN_LINE_WEIGHTS.length - 1)];
     }
     
     /**
-     * Displays the current board state with coordinates
+     * Heuristic strength of a player's position: the weighted sum of the lines only they occupy,
+     * each weighted by how few cells it still misses. O(1) - maintained by makeMove/undoMove
      */
-    public void printBoard() {
-        System.out.println("\nCurrent Board:");
-        
-        // Print column numbers
-        System.out.print("   ");
-        for (int j = 0; j < size; j++) {
-            System.out.printf("%2d ", j);
+    public int getLineScore(char symbol) {
+        int slot = findSlot(symbol);
+        return slot < 0 ? 0 : lineScores[slot];
+    }
+    
+    /**
+     * Number of lines the player can still complete - nobody else has played on them. O(1)
+     */
+    public int getOpenLineCount(char symbol) {
+        int slot = findSlot(symbol);
+        return emptyLines + (slot < 0 ? 0 : ownedLines[slot]);
+    }
+    
+    /**
+     * Number of lines the player could complete with one move (a cell on two of them counts twice)
+     */
+    public int getThreatCount(char symbol) {
+        int slot = findSlot(symbol);
+        return slot < 0 ? 0 : threatCount[slot];
+    }
+    
+    /**
+     * The empty cell (row * size + col) that completes the player's threat at index
+     * 0..getThreatCount(symbol) - 1 - the line's cell sum minus its filled cells' sum
+     */
+    public int getThreatCell(char symbol, int index) {
+        int line = threats[findSlot(symbol)][index];
+        return (int) (lineCellTotal(line) - lineCellSum[line]);
+    }
+    
+    /**
+     * Sum of all the cell indexes on a line, in closed form: lines are numbered rows first, then
+     * columns, then main and anti diagonal
+     */
+    private long lineCellTotal(int line) {
+        long n = size;
+        long steps = n * (n - 1) / 2; // 0 + 1 + ... + (size - 1)
+        if (line < size) {
+            return line * n * n + steps;
+        }
+        if (line < 2 * size) {
+            return steps * n + (line - size) * n;
+        }
+        if (line == 2 * size) {
+            return steps * (n + 1);
+        }
+        return steps * (n - 1) + n * (n - 1);
+    }
+    
+    /**
+     * A cell that wins on the spot for the player, or -1 - O(1) through the threat index
+     */
+    public int findWinningCell(char symbol) {
+        return getThreatCount(symbol) > 0 ? getThreatCell(symbol, 0) : -1;
+    }
+    
+    /**
+     * Zobrist hash of the current position - equal positions hash equally regardless of move order
+     */
+    public long getHash() {
+        return hashes[0];
+    }
+    
+    /**
+     * Hash shared by all 8 symmetric variants of the position (the smallest of their hashes)
+     */
+    public long getCanonicalHash() {
+        return hashes[getCanonicalSymmetry()];
+    }
+    
+    /**
+     * The symmetry that maps this position onto its canonical form (lowest index on ties)
+     * transformCell with it maps cells of this board to cells of the canonical board
+     */
+    public int getCanonicalSymmetry() {
+        int best = 0;
+        for (int s = 1; s < SYMMETRIES; s++) {
+            if (hashes[s] < hashes[best]) {
+                best = s;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Checks whether the position looks the same after applying the symmetry
+     */
+    public boolean isSymmetricUnder(int symmetry) {
+        return hashes[symmetry] == hashes[0];
+    }
+    
+    /**
+     * Where a cell (row * size + col) lands when the board is transformed by the symmetry
+     */
+    public int transformCell(int symmetry, int cell) {
+        return transform(symmetry, cell / size, cell % size);
+    }
+    
+    private int transform(int symmetry, int row, int col) {
+        int last = size - 1;
+        switch (symmetry) {
+            case 0: return row * size + col;
+            case 1: return col * size + (last - row);
+            case 2: return (last - row) * size + (last - col);
+            case 3: return (last - col) * size + row;
+            case 4: return row * size + (last - col);
+            case 5: return (last - row) * size + col;
+            case 6: return col * size + row;
+            case 7: return (last - col) * size + (last - row);
+            default: throw new IllegalArgumentException("Unknown symmetry " + symmetry);
+        }
+    }
+    
+    /**
+     * The symmetry that undoes the given one - only the two quarter turns are not self-inverse
+     */
+    public static int inverseSymmetry(int symmetry) {
+        return symmetry == 1 ? 3 : symmetry == 3 ? 1 : symmetry;
+    }
+    
+    private void toggleHashes(int row, int col, char symbol) {
+        for (int s = 0; s < SYMMETRIES; s++) {
+            hashes[s] ^= zobristKey(transform(s, row, col), symbol);
+        }
+    }
+    
+    /**
+     * Zobrist key for a symbol on a cell
+     * Design Decision: Keys are derived with a SplitMix64 finalizer instead of a random table,
+     * so large boards and any number of symbols cost no memory
+     */
+    static long zobristKey(int cell, char symbol) {
+        long z = (((long) cell << 16) | symbol) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Returns the symbol at a cell, or '.' if it is empty
+     */
+    public char getCell(int row, int col) {
+        int owner = cells.owner(row * size + col);
+        return owner == CellStore.EMPTY ? EMPTY : symbols[owner];
+    }
+    
+    /**
+     * Cells held by symbol as a bitmask, bit row * size + col - boards of at most 64 cells only
+     * Design Decision: Read from the packed cell words 16 cells at a time, for callers that key
+     * whole small positions (the perfect-play database) rather than walking cell by cell
+     */
+    public long getCellMask(char symbol) {
+        int slot = findSlot(symbol);
+        return slot < 0 ? 0 : cells.ownedBits(slot, smallBoardCells());
+    }
+    
+    /**
+     * Empty cells as a bitmask, like getCellMask
+     */
+    public long getEmptyMask() {
+        return cells.ownedBits(CellStore.EMPTY, smallBoardCells());
+    }
+    
+    private int smallBoardCells() {
+        if (size > 8) {
+            throw new IllegalStateException("Cell masks need a board of at most 64 cells");
+        }
+        return size * size;
+    }
+    
+    /**
+     * Enhanced win checking for NxN boards
+     * Design Decision: Need N in a row/column/diagonal to win
+     */
+    public boolean checkWin(char symbol) {
+        int slot = findSlot(symbol);
+        if (slot < 0) {
+            return false; // Symbol has never been placed
+        }
+        return completedLines[slot] > 0;
+    }
+    
+    /**
+     * Checks whether placing symbol on the empty cell (row, col) would complete a line
+     * Design Decision: Read straight from the line counters - a line through an empty cell is one
+     * move from done exactly when the player already holds the other size - 1 cells
+     */
+    public boolean wouldComplete(int row, int col, char symbol) {
+        int slot = findSlot(symbol);
+        if (slot < 0) {
+            return false; // Symbol has never been placed
+        }
+        int[] counts = lineCounts[slot];
+        int needed = size - 1;
+        return counts[row] == needed || counts[size + col] == needed
+                || (row == col && counts[2 * size] == needed)
+                || (row + col == size - 1 && counts[2 * size + 1] == needed);
+    }
+    
+    /**
+     * Checks if the board is completely filled
+     */
+    public boolean isFull() {
+        return filledCells == size * size;
+    }
+    
+    /**
+     * Number of players this board knows about
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+    
+    /**
+     * Symbol of the player at the given position in the turn order
+     */
+    public char getPlayerSymbol(int index) {
+        return symbols[index];
+    }
+    
+    /**
+     * Returns the slot for a symbol, registering it if this is its first placement
+     */
+    private int slotOf(char symbol) {
+        int slot = findSlot(symbol);
+        if (slot >= 0) {
+            return slot;
         }
-        System.out.println();
         
-        // Print rows with row numbers
-        for (int i = 0; i < size; i++) {
-            System.out.printf("%2d ", i);
-            for (int j = 0; j < size; j++) {
-                System.out.printf(" %c ", board[i][j]);
+        if (playerCount == MAX_PLAYERS) {
+            throw new IllegalArgumentException("A board holds at most " + MAX_PLAYERS + " players");
+        }
+        if (playerCount == symbols.length) {
+            symbols = Arrays.copyOf(symbols, playerCount * 2);
+            lineCounts = Arrays.copyOf(lineCounts, playerCount * 2);
+            completedLines = Arrays.copyOf(completedLines, playerCount * 2);
+            lineScores = Arrays.copyOf(lineScores, playerCount * 2);
+            ownedLines = Arrays.copyOf(ownedLines, playerCount * 2);
+            threats = Arrays.copyOf(threats, playerCount * 2);
+            threatIndex = Arrays.copyOf(threatIndex, playerCount * 2);
+            threatCount = Arrays.copyOf(threatCount, playerCount * 2);
+            for (int p = playerCount; p < lineCounts.length; p++) {
+                lineCounts[p] = new int[2 * size + 2];
+                threats[p] = new int[2 * size + 2];
+                threatIndex[p] = new int[2 * size + 2];
+            }
+        }
+        symbols[playerCount] = symbol;
+        return playerCount++;
+    }
+    
+    private int findSlot(char symbol) {
+        for (int p = 0; p < playerCount; p++) {
+            if (symbols[p] == symbol) {
+                return p;
             }
-            System.out.println();
         }
-        System.out.println();
+        return -1;
+    }
+    
+    /**
+     * Displays the current board state with coordinates, in one write (see BoardRenderer)
+     */
+    public void printBoard() {
+        new BoardRenderer(System.out, BoardRenderer.Mode.FULL).render(this, null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+import java.io.PrintStream;
+
+/**
+ * Console renderer for boards - draws each frame into one reusable buffer and writes it in a
+ * single call, instead of a formatted write per cell
+ * Design Decision: Three modes. FULL prints the whole board every frame. ANSI draws the board
+ * once at the top of the screen, keeps the scrolling text below it with a scroll region, and
+ * then rewrites only the cells that changed since the last frame. VIEWPORT prints a window
+ * around the last move, for boards too large to print at all
+ * Design Decision: ANSI mode finds changed cells by comparing with a copy of the cells on
+ * screen, so it stays correct whatever happened to the board between frames
+ */
+public class BoardRenderer {
+    public enum Mode {
+        FULL,
+        ANSI,
+        VIEWPORT
+    }
+    
+    /**
+     * Largest board printed whole by default - bigger ones get a viewport
+     */
+    static final int FULL_MAX_SIZE = 40;
+    static final int DEFAULT_VIEWPORT = 21;
+    
+    private static final String ESC = "\033[";
+    private static final int TOP_LINES = 2; // title and column numbers, above the first row
+    
+    private final PrintStream out;
+    private final Mode mode;
+    private final int viewport;
+    private final StringBuilder frame = new StringBuilder();
+    private char[] shown; // ANSI: cells on screen, null until the first frame is drawn
+    private int shownSize;
+    
+    public BoardRenderer(PrintStream out, Mode mode) {
+        this(out, mode, DEFAULT_VIEWPORT);
+    }
+    
+    /**
+     * @param viewport rows and columns shown in VIEWPORT mode
+     */
+    public BoardRenderer(PrintStream out, Mode mode, int viewport) {
+        if (viewport < 1) {
+            throw new IllegalArgumentException("Viewport must be at least 1 cell");
+        }
+        this.out = out;
+        this.mode = mode;
+        this.viewport = viewport;
+    }
+    
+    /**
+     * FULL for boards up to FULL_MAX_SIZE, VIEWPORT above
+     */
+    static BoardRenderer forSize(int size, PrintStream out) {
+        return new BoardRenderer(out, size <= FULL_MAX_SIZE ? Mode.FULL : Mode.VIEWPORT);
+    }
+    
+    /**
+     * Draws the board; lastMove (null before the first move) centres the viewport
+     */
+    public void render(Board board, Move lastMove) {
+        frame.setLength(0);
+        switch (mode) {
+            case FULL:
+                frame.append("\nCurrent Board:\n");
+                appendWindow(board, 0, 0, board.getSize());
+                frame.append('\n');
+                break;
+            case ANSI:
+                appendChanges(board);
+                break;
+            case VIEWPORT:
+                appendViewport(board, lastMove);
+                break;
+        }
+        if (frame.length() > 0) {
+            out.append(frame);
+            out.flush();
+        }
+    }
+    
+    /**
+     * Hands the whole screen back to scrolling text - ANSI mode only, a no-op otherwise
+     */
+    public void close() {
+        if (mode == Mode.ANSI && shown != null) {
+            out.print("\0337" + ESC + "r\0338"); // resetting the region homes the cursor, so keep it
+            out.flush();
+            shown = null;
+        }
+    }
+    
+    private void appendViewport(Board board, Move lastMove) {
+        int size = board.getSize();
+        int span = Math.min(viewport, size);
+        int centerRow = lastMove != null ? lastMove.getRow() : size / 2;
+        int centerCol = lastMove != null ? lastMove.getCol() : size / 2;
+        int top = Math.max(0, Math.min(size - span, centerRow - span / 2));
+        int left = Math.max(0, Math.min(size - span, centerCol - span / 2));
+        
+        frame.append("\nCurrent Board (rows ").append(top).append('-').append(top + span - 1)
+                .append(", columns ").append(left).append('-').append(left + span - 1)
+                .append(" of ").append(size).append('x').append(size).append("):\n");
+        appendWindow(board, top, left, span);
+        frame.append('\n');
+    }
+    
+    /**
+     * Column numbers, then span rows of span cells from (top, left), each row numbered
+     */
+    private void appendWindow(Board board, int top, int left, int span) {
+        int width = labelWidth(board.getSize());
+        pad(width + 1);
+        for (int col = left; col < left + span; col++) {
+            appendNumber(col, width);
+            frame.append(' ');
+        }
+        frame.append('\n');
+        
+        for (int row = top; row < top + span; row++) {
+            appendNumber(row, width);
+            frame.append(' ');
+            for (int col = left; col < left + span; col++) {
+                pad(width - 1);
+                frame.append(board.getCell(row, col)).append(' ');
+            }
+            frame.append('\n');
+        }
+    }
+    
+    private void appendChanges(Board board) {
+        int size = board.getSize();
+        if (shown == null || shownSize != size) {
+            // First frame: clear the screen, draw everything, and scroll text only below the board
+            frame.append(ESC).append("2J").append(ESC).append('H').append("Current Board:\n");
+            appendWindow(board, 0, 0, size);
+            int textTop = TOP_LINES + size + 2;
+            frame.append(ESC).append(textTop).append(";r").append(ESC).append(textTop).append(";1H");
+            shown = new char[size * size];
+            shownSize = size;
+            for (int cell = 0; cell < shown.length; cell++) {
+                shown[cell] = board.getCell(cell / size, cell % size);
+            }
+            return;
+        }
+        
+        int width = labelWidth(size);
+        boolean moved = false;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                char symbol = board.getCell(row, col);
+                if (shown[row * size + col] != symbol) {
+                    if (!moved) {
+                        frame.append("\0337"); // save the text cursor
+                        moved = true;
+                    }
+                    // 1-based screen position: row label, then width + 1 characters per cell
+                    frame.append(ESC).append(TOP_LINES + row + 1).append(';')
+                            .append((width + 1) * (col + 1) + width).append('H').append(symbol);
+                    shown[row * size + col] = symbol;
+                }
+            }
+        }
+        if (moved) {
+            frame.append("\0338");
+        }
+    }
+    
+    /**
+     * Digits of the largest row/column number, at least 2 so small boards keep their old layout
+     */
+    private static int labelWidth(int size) {
+        return Math.max(2, Integer.toString(size - 1).length());
+    }
+    
+    private void appendNumber(int value, int width) {
+        pad(width - Integer.toString(value).length());
+        frame.append(value);
+    }
+    
+    private void pad(int count) {
+        for (int i = 0; i < count; i++) {
+            frame.append(' ');
+        }
+    }
+}
\ No newline at end of file
@@ -1,28 +1,74 @@
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /*
  * BotPlayer class - handles AI player moves
  * Design Decision: Uses composition with BotStrategy for different difficulty levels
+ * Design Decision: Hard bots ponder while a human opponent is thinking (see Ponderer); they do
+ * not ponder against other bots, whose searches would have to share the CPU with it
+ * Design Decision: requestMove searches on a background thread under the caller's SearchControl,
+ * so Game can enforce its clocks; getNextMove stays the simple blocking call
  */
 public class BotPlayer extends Player {
+    static final List<String> DIFFICULTIES = List.of("easy", "medium", "hard", "mcts", "perfect", "solver");
+    
+    // Searches requested through requestMove; daemon threads, so a cut-off search never keeps the JVM alive
+    private static final ExecutorService SEARCH_THREADS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "bot-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     private BotStrategy strategy;
     private String difficulty;
+    private Ponderer ponderer; // null unless the strategy can ponder and pondering is on
     
     public BotPlayer(String name, char symbol, String difficulty) {
         super(name + " (Bot-" + difficulty + ")", symbol);
         this.difficulty = difficulty.toLowerCase();
-        this.strategy = createStrategy(this.difficulty);
+        this.strategy = createStrategy(this.difficulty, new Random());
+        setPondering(true);
+    }
+    
+    /**
+     * Turns pondering on or off - only searching strategies (hard) can ponder
+     */
+    public final void setPondering(boolean enabled) {
+        if (ponderer != null) {
+            ponderer.stop();
+        }
+        ponderer = enabled && strategy instanceof HardBotStrategy ? new Ponderer((HardBotStrategy) strategy) : null;
     }
     
     /**
      * Factory method to create appropriate strategy based on difficulty
+     * Randomized strategies draw from the given source (seeded by the headless simulator)
      */
-    private BotStrategy createStrategy(String difficulty) {
+    static BotStrategy createStrategy(String difficulty, Random random) {
+        return createStrategy(difficulty, random, new SearchConfig());
+    }
+    
+    /**
+     * Same, with the search settings for the searching bots (hard, mcts and the fallback of perfect and solver)
+     */
+    static BotStrategy createStrategy(String difficulty, Random random, SearchConfig config) {
         switch (difficulty) {
             case "easy":
-                return new EasyBotStrategy();
+                return new EasyBotStrategy(random);
             case "medium":
-                return new MediumBotStrategy();
+                return new MediumBotStrategy(random);
             case "hard":
-                return new HardBotStrategy();
+                return new HardBotStrategy(config);
+            case "mcts":
+                return new MonteCarloBotStrategy(config, new SplittableRandom(random.nextLong()));
+            case "perfect":
+                return new PerfectPlayBotStrategy(PerfectPlayBotStrategy.DEFAULT_DIRECTORY, new HardBotStrategy(config));
+            case "solver":
+                return new ProofNumberBotStrategy(config);
             default:
                 System.out.println("Unknown difficulty '" + difficulty + "', defaulting to easy");
                 return new EasyBotStrategy();
@@ -40,11 +86,36 @@ public class BotPlayer extends Player {
             Thread.currentThread().interrupt();
         }
         
-        Move move = strategy.getMove(board, symbol);
+        Move move = search(board, new SearchControl());
         System.out.println(name + " chooses position " + move);
         return move;
     }
     
+    @Override
+    public CompletableFuture<Move> requestMove(Board board, SearchControl control) {
+        System.out.println(name + " is thinking...");
+        Board position = board.copy(); // The caller may move on while a cut-off search winds down
+        return CompletableFuture.supplyAsync(() -> search(position, control), SEARCH_THREADS);
+    }
+    
+    private Move search(Board board, SearchControl control) {
+        return ponderer != null ? ponderer.getMove(board, symbol, control) : strategy.getMove(board, symbol, control);
+    }
+    
+    @Override
+    public void opponentToMove(Board board, Player opponent) {
+        if (ponderer != null && opponent.isHuman()) {
+            ponderer.start(board, opponent.getSymbol(), symbol);
+        }
+    }
+    
+    @Override
+    public void gameOver() {
+        if (ponderer != null) {
+            ponderer.stop();
+        }
+    }
+    
     @Override
     public boolean isHuman() {
         return false;
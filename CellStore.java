@@ -0,0 +1,247 @@
+/**
+ * Which player holds each cell of a Board, plus the indexed empty-cell set
+ * Design Decision: Two layouts behind one interface - packed player indexes and arrays for the usual
+ * board sizes, and hash maps whose memory grows with the number of moves for boards too large
+ * to allocate N² of anything. Board picks one by size; every line counter stays in Board
+ * Design Decision: Both layouts keep the same empty-cell permutation, so a game plays out
+ * identically whichever one its board uses
+ */
+abstract class CellStore {
+    static final int EMPTY = -1;
+    
+    /**
+     * Players a store can tell apart - dense boards give each cell a 4-bit slot + 1
+     */
+    static final int MAX_PLAYERS = 15;
+    
+    /**
+     * Boards up to this size are dense - about 8.5 bytes per cell, so 9 MB at the limit
+     */
+    static final int DENSE_MAX_SIZE = 1024;
+    
+    static CellStore forSize(int size) {
+        return size <= DENSE_MAX_SIZE ? new Dense(size) : new Sparse();
+    }
+    
+    abstract CellStore copy();
+    
+    abstract boolean isEmpty(int cell);
+    
+    /**
+     * Slot of the player on the cell, or EMPTY
+     */
+    abstract int owner(int cell);
+    
+    /**
+     * Gives the cell to slot, replacing any previous owner
+     */
+    abstract void set(int cell, int slot);
+    
+    abstract void clear(int cell);
+    
+    /**
+     * Cells 0..cells - 1 (at most 64) held by slot, or empty for EMPTY, as a bitmask
+     */
+    abstract long ownedBits(int slot, int cells);
+    
+    /**
+     * The cell at a position of the empty-cell set
+     */
+    abstract int emptyCellAt(int position);
+    
+    /**
+     * Position of a cell in the empty-cell set
+     */
+    abstract int emptyPositionOf(int cell);
+    
+    /**
+     * Moves a cell to the given position of the empty-cell set, trading places with the cell there
+     */
+    abstract void swapEmpty(int cell, int position);
+    
+    /**
+     * Owners as 4-bit player indexes packed 16 to a long (0 empty, slot + 1 otherwise), and the
+     * empty-cell set as two permutation arrays
+     */
+    private static final class Dense extends CellStore {
+        private static final long NIBBLE_LOW_BITS = 0x1111111111111111L;
+        
+        private final long[] owners;
+        private final int[] emptyCells; // emptyCells[position] = cell
+        private final int[] emptyIndex; // emptyIndex[cell] = position
+        
+        Dense(int size) {
+            int cells = size * size;
+            this.owners = new long[(cells + 15) >>> 4];
+            this.emptyCells = new int[cells];
+            this.emptyIndex = new int[cells];
+            for (int cell = 0; cell < cells; cell++) {
+                emptyCells[cell] = cell;
+                emptyIndex[cell] = cell;
+            }
+        }
+        
+        private Dense(Dense other) {
+            this.owners = other.owners.clone();
+            this.emptyCells = other.emptyCells.clone();
+            this.emptyIndex = other.emptyIndex.clone();
+        }
+        
+        @Override
+        CellStore copy() {
+            return new Dense(this);
+        }
+        
+        @Override
+        boolean isEmpty(int cell) {
+            return (owners[cell >>> 4] & (0xFL << ((cell & 15) << 2))) == 0;
+        }
+        
+        @Override
+        int owner(int cell) {
+            return (int) (owners[cell >>> 4] >>> ((cell & 15) << 2) & 0xF) - 1;
+        }
+        
+        @Override
+        void set(int cell, int slot) {
+            int shift = (cell & 15) << 2;
+            int word = cell >>> 4;
+            owners[word] = owners[word] & ~(0xFL << shift) | (long) (slot + 1) << shift;
+        }
+        
+        @Override
+        void clear(int cell) {
+            owners[cell >>> 4] &= ~(0xFL << ((cell & 15) << 2));
+        }
+        
+        @Override
+        long ownedBits(int slot, int cells) {
+            // Nibbles equal to slot + 1 become zero, then each nibble's "any bit set" moves to its low bit
+            long pattern = (slot + 1) * NIBBLE_LOW_BITS;
+            long bits = 0;
+            for (int word = 0; word << 4 < cells; word++) {
+                long x = owners[word] ^ pattern;
+                x |= x >>> 1;
+                x |= x >>> 2;
+                bits |= compressNibbles(~x & NIBBLE_LOW_BITS) << (word << 4);
+            }
+            return cells == 64 ? bits : bits & ((1L << cells) - 1);
+        }
+        
+        /**
+         * Gathers bit 4k of x into bit k, for k = 0..15
+         */
+        private static long compressNibbles(long x) {
+            x = (x | x >>> 3) & 0x0303030303030303L;
+            x = (x | x >>> 6) & 0x000F000F000F000FL;
+            x = (x | x >>> 12) & 0x000000FF000000FFL;
+            return (x | x >>> 24) & 0xFFFFL;
+        }
+        
+        @Override
+        int emptyCellAt(int position) {
+            return emptyCells[position];
+        }
+        
+        @Override
+        int emptyPositionOf(int cell) {
+            return emptyIndex[cell];
+        }
+        
+        @Override
+        void swapEmpty(int cell, int position) {
+            int other = emptyCells[position];
+            int from = emptyIndex[cell];
+            emptyCells[from] = other;
+            emptyIndex[other] = from;
+            emptyCells[position] = cell;
+            emptyIndex[cell] = position;
+        }
+    }
+    
+    /**
+     * Owners in a cell -> slot map; the empty-cell permutation stores only the entries that differ
+     * from the identity, which a move changes at most two of each way
+     */
+    private static final class Sparse extends CellStore {
+        private final IntHashMap owners;
+        private final IntHashMap emptyCells; // position -> cell, absent means the cell at that index
+        private final IntHashMap emptyIndex; // cell -> position, likewise
+        
+        Sparse() {
+            this.owners = new IntHashMap();
+            this.emptyCells = new IntHashMap();
+            this.emptyIndex = new IntHashMap();
+        }
+        
+        private Sparse(Sparse other) {
+            this.owners = other.owners.copy();
+            this.emptyCells = other.emptyCells.copy();
+            this.emptyIndex = other.emptyIndex.copy();
+        }
+        
+        @Override
+        CellStore copy() {
+            return new Sparse(this);
+        }
+        
+        @Override
+        boolean isEmpty(int cell) {
+            return owners.get(cell, EMPTY) == EMPTY;
+        }
+        
+        @Override
+        int owner(int cell) {
+            return owners.get(cell, EMPTY);
+        }
+        
+        @Override
+        void set(int cell, int slot) {
+            owners.put(cell, slot);
+        }
+        
+        @Override
+        void clear(int cell) {
+            owners.remove(cell);
+        }
+        
+        @Override
+        long ownedBits(int slot, int cells) {
+            long bits = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                if (owners.get(cell, EMPTY) == slot) {
+                    bits |= 1L << cell;
+                }
+            }
+            return bits;
+        }
+        
+        @Override
+        int emptyCellAt(int position) {
+            return emptyCells.get(position, position);
+        }
+        
+        @Override
+        int emptyPositionOf(int cell) {
+            return emptyIndex.get(cell, cell);
+        }
+        
+        @Override
+        void swapEmpty(int cell, int position) {
+            int other = emptyCells.get(position, position);
+            int from = emptyIndex.get(cell, cell);
+            place(from, other);
+            place(position, cell);
+        }
+        
+        private void place(int position, int cell) {
+            if (position == cell) {
+                emptyCells.remove(position);
+                emptyIndex.remove(cell);
+            } else {
+                emptyCells.put(position, cell);
+                emptyIndex.put(cell, position);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,26 +1,81 @@
+import java.io.IOException;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Enhanced Game class - supports multiple players (human/bot mix)
  * Design Decision: Uses polymorphism to handle different player types uniformly
+ * Design Decision: Bots are asked through Player.requestMove under a TimeControl; a bot out of
+ * time plays its best move so far, and a bot that returns no legal move gets a random legal one,
+ * so every bot turn ends within its clock (humans are not clocked)
+ * Design Decision: An optional MoveLog.Recorder records the game as it is played; a failing
+ * log is reported and dropped rather than ending the game
+ * Design Decision: The board is drawn by a BoardRenderer after every move - a whole frame per
+ * write, a window around the last move on large boards, or only the changed cells in ANSI mode
  */
 public class Game {
+    // Auto-assigned symbols, in seat order
+    static final char[] SYMBOLS = {'X', 'O', '★', '♦', '♠', '♥', '♣', '◆', '◇', '●'};
+    
+    private static final long BOT_PACING_MILLIS = 1000; // Bot turns last at least this long, for readability
+    private static final long CANCEL_GRACE_MILLIS = 20; // Time a cut-off search gets to hand back its move
+    
     private List<Player> players;
     private Board board;
+    private TimeControl clock;
+    private MoveLog.Recorder recorder; // null when the game is not recorded
+    private BoardRenderer renderer;
+    private Move lastMove; // null before the first move
+    private Random random = new Random();
     private int currentPlayerIndex;
     private boolean gameOver;
     
     public Game(List<Player> players, int boardSize) {
+        this(players, boardSize, TimeControl.unlimited(players.size()));
+    }
+    
+    public Game(List<Player> players, int boardSize, TimeControl clock) {
         if (players.size() < 2) {
             throw new IllegalArgumentException("Need at least 2 players to play!");
         }
         
         this.players = players;
-        this.board = new Board(boardSize);
+        this.clock = clock;
         this.currentPlayerIndex = 0;
         this.gameOver = false;
         
         assignSymbols();
+        this.board = new Board(boardSize, getTurnOrder());
+        this.renderer = BoardRenderer.forSize(boardSize, System.out);
+    }
+    
+    /**
+     * Replaces the default renderer (full board up to BoardRenderer.FULL_MAX_SIZE, viewport above)
+     */
+    public void setRenderer(BoardRenderer renderer) {
+        this.renderer = renderer;
+    }
+    
+    /**
+     * Records the game into the given recorder - call before startGame; the caller closes it
+     */
+    public void setMoveLog(MoveLog.Recorder recorder) {
+        this.recorder = recorder;
+    }
+    
+    /**
+     * Symbols of all players in rotation order (used to tell the board who is playing)
+     */
+    private char[] getTurnOrder() {
+        char[] order = new char[players.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = players.get(i).getSymbol();
+        }
+        return order;
     }
     
     /**
@@ -28,22 +83,14 @@ public class Game {
      * Design Decision: Auto-assign symbols to avoid conflicts
      */
     private void assignSymbols() {
-        char[] symbols = {'X', 'O', '★', '♦', '♠', '♥', '♣', '◆', '◇', '●'};
+        char[] symbols = SYMBOLS;
         
         if (players.size() > symbols.length) {
             throw new IllegalArgumentException("Too many players! Maximum " + symbols.length + " supported.");
         }
         
         for (int i = 0; i < players.size(); i++) {
-            // Use reflection to set symbol (since it's protected in Player)
-            // In a real implementation, you might want a setter method instead
-            try {
-                java.lang.reflect.Field symbolField = Player.class.getDeclaredField("symbol");
-                symbolField.setAccessible(true);
-                symbolField.setChar(players.get(i), symbols[i]);
-            } catch (Exception e) {
-                System.err.println("Error assigning symbols: " + e.getMessage());
-            }
+            players.get(i).setSymbol(symbols[i]);
         }
     }
     
@@ -58,15 +105,21 @@ public class Game {
             System.out.println("  " + player.getName() + " (" + player.getSymbol() + ") - " + type);
         }
         
-        board.printBoard();
+        renderer.render(board, lastMove);
+        startRecording();
         
         while (!gameOver) {
             processMove();
-            board.printBoard();
+            renderer.render(board, lastMove);
             
             if (checkGameEnd()) {
                 displayResult();
                 gameOver = true;
+                renderer.close();
+                stopRecording();
+                for (Player player : players) {
+                    player.gameOver();
+                }
             } else {
                 switchToNextPlayer();
             }
@@ -95,20 +148,145 @@ public class Game {
         Player currentPlayer = getCurrentPlayer();
         boolean validMove = false;
         
+        for (Player player : players) {
+            if (player != currentPlayer) {
+                player.opponentToMove(board, currentPlayer);
+            }
+        }
+        
+        if (!currentPlayer.isHuman()) {
+            Move move = awaitBotMove(currentPlayer);
+            board.makeMove(move.getRow(), move.getCol(), currentPlayer.getSymbol());
+            lastMove = move;
+            recordMove(move);
+            return;
+        }
+        
         while (!validMove) {
+            long start = System.nanoTime();
             Move move = currentPlayer.getNextMove(board);
             
             if (move != null && board.isValidMove(move.getRow(), move.getCol())) {
                 board.makeMove(move.getRow(), move.getCol(), currentPlayer.getSymbol());
+                lastMove = move;
+                recordMove(move);
+                if (Metrics.ENABLED) {
+                    Metrics.recordMove(currentPlayer, System.nanoTime() - start);
+                }
                 validMove = true;
             } else {
-                if (currentPlayer.isHuman()) {
-                    System.out.println("Invalid move! Cell is either occupied or out of bounds. Try again.");
-                } else {
-                    // Bot made invalid move - should not happen with good strategies
-                    System.out.println("Bot error: Invalid move attempted. Retrying...");
+                if (Metrics.ENABLED) {
+                    Metrics.recordInvalidMove();
+                }
+                System.out.println("Invalid move! Cell is either occupied or out of bounds. Try again.");
+            }
+        }
+    }
+    
+    /**
+     * Legal move for a bot that returned none: its best move so far if that is still legal,
+     * else a random empty cell (the board must not be full)
+     */
+    static Move fallbackMove(Board board, SearchControl control, Random random) {
+        Move bestSoFar = control.getBestSoFar();
+        if (bestSoFar != null && board.isValidMove(bestSoFar.getRow(), bestSoFar.getCol())) {
+            return bestSoFar;
+        }
+        return Move.fromCell(board.getEmptyCell(random.nextInt(board.getEmptyCount())), board.getSize());
+    }
+    
+    /**
+     * Gets a bot's move under the clock - always returns a legal move
+     */
+    private Move awaitBotMove(Player bot) {
+        long allowance = clock.allowanceMillis(currentPlayerIndex, board);
+        SearchControl control = new SearchControl(allowance);
+        long start = System.nanoTime();
+        
+        Move move = null;
+        CompletableFuture<Move> request = bot.requestMove(board, control);
+        try {
+            if (allowance == TimeControl.UNLIMITED) {
+                move = request.get();
+            } else {
+                try {
+                    move = request.get(allowance + CANCEL_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // The strategy ignored its deadline - cut it off and take what it has
+                    control.cancel();
+                    move = request.get(CANCEL_GRACE_MILLIS, TimeUnit.MILLISECONDS);
                 }
             }
+        } catch (TimeoutException e) {
+            move = control.getBestSoFar();
+            System.out.println(bot.getName() + " ran out of time, playing its best move so far");
+        } catch (ExecutionException e) {
+            move = control.getBestSoFar();
+            System.out.println("Bot error: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            control.cancel();
+            move = control.getBestSoFar();
+        }
+        long elapsed = System.nanoTime() - start;
+        clock.charge(currentPlayerIndex, elapsed);
+        if (Metrics.ENABLED) {
+            Metrics.recordMove(bot, elapsed);
+        }
+        
+        if (move == null || !board.isValidMove(move.getRow(), move.getCol())) {
+            if (Metrics.ENABLED) {
+                Metrics.recordInvalidMove();
+            }
+            // Bot made invalid move - should not happen with good strategies
+            Move fallback = fallbackMove(board, control, random);
+            System.out.println("Bot error: Invalid move " + move + " attempted. Playing " + fallback + " instead.");
+            move = fallback;
+        }
+        
+        long pacing = BOT_PACING_MILLIS - (System.nanoTime() - start) / 1_000_000L;
+        if (pacing > 0) {
+            try {
+                Thread.sleep(pacing);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println(bot.getName() + " chooses position " + move);
+        return move;
+    }
+    
+    private void startRecording() {
+        if (recorder == null) {
+            return;
+        }
+        String[] names = new String[players.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = players.get(i).getName();
+        }
+        try {
+            recorder.startGame(board.getSize(), getTurnOrder(), names);
+        } catch (IOException e) {
+            System.err.println("Move log failed, game not recorded: " + e.getMessage());
+            recorder = null;
+        }
+    }
+    
+    private void recordMove(Move move) {
+        if (recorder != null) {
+            recorder.move(move.getRow() * board.getSize() + move.getCol(), currentPlayerIndex);
+        }
+    }
+    
+    private void stopRecording() {
+        if (recorder == null) {
+            return;
+        }
+        recorder.endGame(board.checkWin(getCurrentPlayer().getSymbol()) ? currentPlayerIndex : MoveLog.DRAW);
+        try {
+            recorder.flush();
+        } catch (IOException e) {
+            System.err.println("Move log failed, game not recorded: " + e.getMessage());
         }
     }
     
@@ -150,6 +328,9 @@ public class Game {
             if (!player.isHuman()) {
                 BotPlayer bot = (BotPlayer) player;
                 type += " (" + bot.getDifficulty() + ")";
+                if (!clock.isUnlimited()) {
+                    type += ", " + clock.getUsedMillis(players.indexOf(player)) + " ms used";
+                }
             }
             System.out.println("  " + player.getName() + " (" + player.getSymbol() + ") - " + type);
         }
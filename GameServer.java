@@ -0,0 +1,281 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hosts many concurrent games for remote players and bots
+ * Design Decision: Every game and every connection gets its own virtual thread, so blocking on
+ * player input is plain sequential code, while bot searches run on a fixed pool of CPU threads -
+ * a burst of hard-bot turns waits for a core instead of holding up socket I/O
+ * Design Decision: Two transports share one session model - startGame for in-process clients,
+ * and a line protocol on a loopback socket (see listen)
+ */
+public class GameServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7777;
+    
+    // Hosted hard bots get a small table: thousands of games share the heap
+    private static final int BOT_TABLE_SIZE = 1 << 14;
+    
+    private final ExecutorService virtualThreads = newVirtualThreadExecutor();
+    private final ExecutorService botPool;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong gamesFinished = new AtomicLong();
+    private final Random seeds = new Random();
+    private volatile ServerSocket serverSocket;
+    private volatile boolean closed;
+    
+    /**
+     * @param botThreads CPU threads for bot searches, shared by all games
+     */
+    public GameServer(int botThreads) {
+        if (botThreads < 1) {
+            throw new IllegalArgumentException("Need at least 1 bot thread");
+        }
+        Metrics.registerMBean();
+        AtomicInteger count = new AtomicInteger();
+        this.botPool = Executors.newFixedThreadPool(botThreads, runnable -> {
+            Thread thread = new Thread(runnable, "bot-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Starts a game (in-process transport). Each seat is "human" - a RemotePlayer fed through
+     * GameSession.submitMove - or a bot difficulty. Events go to the listener from the game's thread
+     */
+    public GameSession startGame(int boardSize, List<String> seats, Consumer<String> listener) {
+        if (closed) {
+            throw new IllegalStateException("Server is closed");
+        }
+        if (boardSize < 3) {
+            throw new IllegalArgumentException("Board size must be at least 3x3!");
+        }
+        if (seats.size() < 2 || seats.size() > Game.SYMBOLS.length) {
+            throw new IllegalArgumentException("Need between 2 and " + Game.SYMBOLS.length + " seats");
+        }
+        
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < seats.size(); i++) {
+            String seat = seats.get(i).toLowerCase();
+            char symbol = Game.SYMBOLS[i];
+            if (seat.equals("human")) {
+                players.add(new RemotePlayer("Player" + (i + 1), symbol));
+            } else if (BotPlayer.DIFFICULTIES.contains(seat)) {
+                BotStrategy strategy = BotPlayer.createStrategy(seat, new Random(seeds.nextLong()),
+                        new SearchConfig().tableSize(BOT_TABLE_SIZE));
+                players.add(new PooledBotPlayer("Bot" + (i + 1), symbol, seat, strategy, botPool));
+            } else {
+                throw new IllegalArgumentException("Unknown seat '" + seat + "'");
+            }
+        }
+        
+        long id = nextId.getAndIncrement();
+        GameSession session = new GameSession(id, boardSize, players, listener);
+        sessions.put(id, session);
+        session.setTask(virtualThreads.submit(() -> {
+            try {
+                session.play();
+            } finally {
+                sessions.remove(id);
+                gamesFinished.incrementAndGet();
+            }
+        }));
+        return session;
+    }
+    
+    /**
+     * Session registry lookup - null once the game is over
+     */
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+    
+    public int getActiveGames() {
+        return sessions.size();
+    }
+    
+    public long getGamesFinished() {
+        return gamesFinished.get();
+    }
+    
+    /**
+     * Accepts socket clients on the loopback interface (port 0 picks a free port)
+     * Returns the bound port. Protocol, one line per message:
+     *   client: NEW size seat seat...   (seat = human or a bot difficulty; human seats are this client's)
+     *   client: MOVE row col            (for the human seat whose TURN it is)
+     *   client: QUIT
+     *   server: GAME id, then the GameSession events, or ERROR message
+     */
+    public int listen(int port) throws IOException {
+        ServerSocket socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        this.serverSocket = socket;
+        virtualThreads.submit(() -> acceptLoop(socket));
+        return socket.getLocalPort();
+    }
+    
+    private void acceptLoop(ServerSocket socket) {
+        while (!closed) {
+            try {
+                Socket client = socket.accept();
+                virtualThreads.submit(() -> serve(client));
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * One connection: reads commands until QUIT or EOF; a running game is aborted on disconnect
+     */
+    private void serve(Socket socket) {
+        GameSession session = null;
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Connection out = new Connection(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)));
+            
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                try {
+                    switch (parts[0].toUpperCase()) {
+                        case "NEW":
+                            if (session != null && session.getResult() == GameSession.RUNNING) {
+                                out.send("ERROR A game is already running");
+                                break;
+                            }
+                            List<String> seats = Arrays.asList(parts).subList(2, parts.length);
+                            // GAME must reach the client before the first TURN, so send it under the same lock
+                            out.lock.lock();
+                            try {
+                                session = startGame(Integer.parseInt(parts[1]), seats, out::send);
+                                out.send("GAME " + session.getId());
+                            } finally {
+                                out.lock.unlock();
+                            }
+                            break;
+                        case "MOVE":
+                            Move move = new Move(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                            if (session == null || !session.submitMove(move)) {
+                                out.send("ERROR Not your turn");
+                            }
+                            break;
+                        case "QUIT":
+                            return;
+                        default:
+                            out.send("ERROR Unknown command " + parts[0]);
+                    }
+                } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                    out.send("ERROR " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            // Client went away - nothing to report to
+        } finally {
+            if (session != null) {
+                session.abort();
+            }
+        }
+    }
+    
+    /**
+     * Serializes writes from the connection thread and the game thread onto one socket
+     */
+    private static class Connection {
+        private final Writer writer;
+        private final ReentrantLock lock = new ReentrantLock(); // no monitor pinning on virtual threads
+        
+        Connection(Writer writer) {
+            this.writer = writer;
+        }
+        
+        void send(String message) {
+            lock.lock();
+            try {
+                writer.write(message);
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                // Dropped connection - the reader side notices and aborts the game
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Stops accepting, aborts every running game and releases the threads
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        for (GameSession session : sessions.values()) {
+            session.abort();
+        }
+        virtualThreads.shutdownNow();
+        botPool.shutdownNow();
+    }
+    
+    /**
+     * Virtual thread per task where the runtime has them (Java 21+), otherwise a cached pool
+     * Design Decision: Looked up reflectively so the sources still build for the Java 17 release
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+    
+    /**
+     * Usage: java GameServer [port] [--bot-threads=N]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        int botThreads = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            if (arg.startsWith("--bot-threads=")) {
+                botThreads = Integer.parseInt(arg.substring("--bot-threads=".length()));
+            } else {
+                port = Integer.parseInt(arg);
+            }
+        }
+        
+        GameServer server = new GameServer(botThreads);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Game server listening on localhost:" + server.listen(port)
+                + " (" + botThreads + " bot threads)");
+        Thread.currentThread().join();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,175 @@
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One hosted game - the headless counterpart of Game, played by GameServer on its own virtual thread
+ * Design Decision: Progress goes out as protocol lines to a single listener, so the socket
+ * transport and in-process clients see exactly the same events:
+ *   TURN seat            - the seat has to move now
+ *   MOVED seat row col   - the seat's move was played
+ *   ERROR message        - the move handed in was rejected, the same seat moves again
+ *   END seat|draw|aborted
+ * Design Decision: Bots move through requestMove under a SearchControl that abort cancels, and a
+ * bot that fails or returns no legal move plays the same fallback as in Game, so a bad bot move
+ * never ends a hosted game
+ */
+public class GameSession {
+    public static final int RUNNING = -3;
+    public static final int ABORTED = -2;
+    public static final int DRAW = -1;
+    
+    private final long id;
+    private final Board board;
+    private final List<Player> seats;
+    private final Consumer<String> listener;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile Future<?> task;
+    private volatile SearchControl search; // the running bot search, null while nobody searches
+    private volatile int currentSeat;
+    private volatile int result = RUNNING;
+    
+    GameSession(long id, int boardSize, List<Player> seats, Consumer<String> listener) {
+        this.id = id;
+        this.seats = List.copyOf(seats);
+        this.listener = listener;
+        
+        char[] order = new char[seats.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = seats.get(i).getSymbol();
+        }
+        this.board = new Board(boardSize, order);
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public int getSeatCount() {
+        return seats.size();
+    }
+    
+    public Player getSeat(int seat) {
+        return seats.get(seat);
+    }
+    
+    /**
+     * Winning seat, DRAW, ABORTED, or RUNNING while the game is on
+     */
+    public int getResult() {
+        return result;
+    }
+    
+    /**
+     * Hands a move to the seat whose turn it is; false if that seat is not waiting for remote input
+     */
+    public boolean submitMove(Move move) {
+        Player player = seats.get(currentSeat);
+        return player instanceof RemotePlayer && ((RemotePlayer) player).submit(move);
+    }
+    
+    /**
+     * Blocks until the game is over or the timeout passes; returns getResult()
+     */
+    public int awaitResult(long timeout, TimeUnit unit) throws InterruptedException {
+        finished.await(timeout, unit);
+        return result;
+    }
+    
+    /**
+     * Stops the game - a player waiting for input is interrupted, a bot search is cancelled
+     */
+    public void abort() {
+        Future<?> running = task;
+        if (running != null) {
+            running.cancel(true);
+        }
+        SearchControl control = search;
+        if (control != null) {
+            control.cancel();
+        }
+    }
+    
+    void setTask(Future<?> task) {
+        this.task = task;
+    }
+    
+    /**
+     * Game loop - same rules as Game.startGame, with events instead of console output
+     */
+    void play() {
+        try {
+            int seat = 0;
+            while (true) {
+                currentSeat = seat;
+                Player player = seats.get(seat);
+                if (player instanceof RemotePlayer) {
+                    ((RemotePlayer) player).expectMove();
+                }
+                listener.accept("TURN " + seat);
+                
+                long start = System.nanoTime();
+                Move move = player.isHuman() ? player.getNextMove(board) : awaitBotMove(player);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                if (move == null || !board.isValidMove(move.getRow(), move.getCol())) {
+                    if (Metrics.ENABLED) {
+                        Metrics.recordInvalidMove();
+                    }
+                    if (player.isHuman()) {
+                        listener.accept("ERROR Invalid move " + move);
+                        continue;
+                    }
+                    move = Game.fallbackMove(board, search, ThreadLocalRandom.current());
+                }
+                search = null;
+                
+                if (Metrics.ENABLED) {
+                    Metrics.recordMove(player, System.nanoTime() - start);
+                }
+                boolean won = board.makeMove(move.getRow(), move.getCol(), player.getSymbol());
+                listener.accept("MOVED " + seat + " " + move.getRow() + " " + move.getCol());
+                if (won) {
+                    result = seat;
+                    return;
+                }
+                if (board.isFull()) {
+                    result = DRAW;
+                    return;
+                }
+                seat = (seat + 1) % seats.size();
+            }
+        } finally {
+            if (result == RUNNING) {
+                result = ABORTED;
+            }
+            search = null;
+            listener.accept("END " + (result == DRAW ? "draw" : result == ABORTED ? "aborted" : String.valueOf(result)));
+            finished.countDown();
+        }
+    }
+    
+    /**
+     * Waits for a bot's move under a fresh control that abort can cancel
+     * Returns null if the bot failed, with search left set for the fallback; on abort the
+     * interrupt flag stays set for play to see
+     */
+    private Move awaitBotMove(Player bot) {
+        SearchControl control = new SearchControl();
+        search = control;
+        try {
+            return bot.requestMove(board, control).get();
+        } catch (InterruptedException e) {
+            control.cancel();
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
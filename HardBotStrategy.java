@@ -0,0 +1,725 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hard Bot Strategy - Uses minimax algorithm for optimal play
+ * Design Decision: Keeps a transposition table across moves of the same game,
+ * so positions reached through different move orders are only searched once
+ * Design Decision: Iterative deepening under a per-move time budget - the move from the last
+ * completed depth is played, and each iteration searches the previous principal variation first
+ * Design Decision: Moves are ordered PV move, transposition table move, immediate wins, blocks,
+ * killer moves, history score, then distance from the center - alpha-beta prunes far more when
+ * the best move comes first, and the first-move cutoff rate in SearchStats shows how often it does
+ * Design Decision: Positions are cached under the board's canonical (symmetry-reduced) hash, and
+ * while a position is still symmetric only one move of each equivalent group is searched
+ * Design Decision: Positions at the depth horizon are scored from the board's open-line sums
+ * (own lines minus opponents' lines), an O(1) read, instead of counting as a draw
+ * Design Decision: A SearchControl is polled along with the clock; stopping keeps the move of
+ * the last completed depth, which is also offered to the control after every iteration
+ * Design Decision: Move ordering keeps per-cell history and per-ply buffers and scans every
+ * empty cell per node, so boards above MAX_SEARCH_SIZE (the dense board limit) are played by
+ * the medium strategy instead of searched
+ */
+class HardBotStrategy implements BotStrategy {
+    /**
+     * Largest board searched - bigger ones get the medium strategy's win, block or random move
+     */
+    static final int MAX_SEARCH_SIZE = CellStore.DENSE_MAX_SIZE;
+    
+    private static final int WIN_SCORE = 1_000_000; // Wins score WIN_SCORE - ply, so faster wins score higher
+    private static final int EVAL_LIMIT = WIN_SCORE / 2; // Heuristic scores stay strictly inside +-EVAL_LIMIT
+    // Clock reads come every TIME_CHECK_CELLS / cells nodes (a power of two, at most 1024):
+    // a node costs about one pass over the empty cells, so polls stay well under a millisecond apart
+    private static final int TIME_CHECK_CELLS = 4096;
+    private static final int MAX_TIME_CHECK_INTERVAL = 1024;
+    
+    // Move ordering bands, highest first - each sits above any history/center score
+    private static final long PV_MOVE = 6L << 48;
+    private static final long TABLE_MOVE = 5L << 48;
+    private static final long WINNING_MOVE = 4L << 48;
+    private static final long BLOCKING_MOVE = 3L << 48;
+    private static final long FIRST_KILLER = 2L << 48;
+    private static final long SECOND_KILLER = 1L << 48;
+    private static final int CENTER_MASK = 0xFFFF; // low 16 bits of a sort key; history sits above
+    private static final int ROOT_RANK_MASK = 0x7FFFF; // band and center of a root key, 3 + 16 bits
+    
+    private final SearchConfig config;
+    private final TranspositionTable table;
+    private final ForkJoinPool pool; // shared, null when searching on the calling thread only
+    private final BotStrategy largeBoards = BotPlayer.createStrategy("medium", new Random(0)); // fixed seed keeps seeded games reproducible
+    private volatile SearchStats lastStats;
+    
+    public HardBotStrategy() {
+        this(new SearchConfig());
+    }
+    
+    public HardBotStrategy(SearchConfig config) {
+        this.config = config;
+        this.table = new TranspositionTable(config.getTableSize());
+        this.pool = config.getPool();
+    }
+    
+    @Override
+    public Move getMove(Board board, char symbol) {
+        return getMove(board, symbol, new SearchControl());
+    }
+    
+    @Override
+    public Move getMove(Board board, char symbol, SearchControl control) {
+        int size = board.getSize();
+        if (size > MAX_SEARCH_SIZE) {
+            return largeBoards.getMove(board, symbol);
+        }
+        
+        // Search mutates a single copy with make/undo - no allocation per visited node
+        table.newSearch();
+        int bestCell = new RootSearch(board, symbol, control, true).run();
+        
+        return bestCell >= 0 ? Move.fromCell(bestCell, size) : null; // Board is full
+    }
+    
+    /**
+     * Background search for Ponderer - the same search as getMove, but it leaves
+     * getLastSearchStats alone and returns null if it was cancelled (or the board is full);
+     * either way the table keeps what was searched
+     */
+    Move ponder(Board board, char symbol, SearchControl control) {
+        if (board.getSize() > MAX_SEARCH_SIZE) {
+            return null;
+        }
+        table.newSearch();
+        int bestCell = new RootSearch(board, symbol, control, false).run();
+        return bestCell >= 0 && !control.isCancelled() ? Move.fromCell(bestCell, board.getSize()) : null;
+    }
+    
+    /**
+     * Counters from the most recent getMove, or null before the first search
+     */
+    SearchStats getLastSearchStats() {
+        return lastStats;
+    }
+    
+    /**
+     * Forgets every cached position, so the next move is searched from a cold table
+     */
+    void clearCache() {
+        table.clear();
+    }
+    
+    /**
+     * Win/loss scores are stored relative to the node, so they stay valid at any ply
+     * Heuristic scores do not depend on the ply and are stored as they are
+     */
+    private static int toTableScore(int score, int depth) {
+        return score > EVAL_LIMIT ? score + depth : score < -EVAL_LIMIT ? score - depth : score;
+    }
+    
+    private static int fromTableScore(int score, int depth) {
+        return score > EVAL_LIMIT ? score - depth : score < -EVAL_LIMIT ? score + depth : score;
+    }
+    
+    /**
+     * Drives iterative deepening for one getMove call and owns the root move list
+     * Design Decision: Parallel mode is Young-Brothers-Wait at the root - the PV move is searched
+     * alone to set a bound, then the remaining root moves are claimed by workers sharing that bound.
+     * Workers search with (best - 1) as alpha so ties are scored exactly and the lowest-ordered
+     * move wins, which is the same move the sequential search picks at a fixed depth
+     */
+    private class RootSearch {
+        private final Search main;
+        private final Search[] helpers;
+        private final long deadline;
+        private final SearchControl control;
+        private final boolean reportStats;
+        private final long startTime = System.nanoTime();
+        private int[] previousPv = new int[0];
+        private int completedDepth;
+        
+        RootSearch(Board board, char symbol, SearchControl control, boolean reportStats) {
+            long budget = config.getTimeBudgetMillis();
+            this.deadline = budget > 0 ? System.nanoTime() + budget * 1_000_000L : Long.MAX_VALUE;
+            this.control = control;
+            this.reportStats = reportStats;
+            this.main = new Search(board.copy(), symbol, deadline, control);
+            
+            // Each worker gets its own board copy; the transposition table is shared
+            this.helpers = new Search[pool != null ? config.getThreads() : 0];
+            for (int t = 0; t < helpers.length; t++) {
+                helpers[t] = new Search(board.copy(), symbol, deadline, control);
+            }
+        }
+        
+        /**
+         * Deepens one ply at a time until the depth limit, a proven result or the deadline
+         * Returns the best cell of the last completed iteration, or -1 if the board is full
+         */
+        int run() {
+            int emptyCells = main.board.getEmptyCount();
+            if (emptyCells == 0) {
+                recordStats();
+                return -1;
+            }
+            
+            int depthLimit = Math.min(config.getMaxDepth(), emptyCells);
+            int bestCell = -1;
+            int size = main.size;
+            
+            for (int depth = 1; depth <= depthLimit; depth++) {
+                main.startIteration(depth, previousPv);
+                for (Search helper : helpers) {
+                    helper.startIteration(depth, previousPv);
+                }
+                
+                int[] order = main.rootMoves();
+                if (bestCell < 0) {
+                    bestCell = order[0];
+                    control.offer(Move.fromCell(bestCell, size));
+                }
+                int[] scores = new int[order.length];
+                int[][] lines = new int[order.length][];
+                
+                if (!searchRoot(order, scores, lines)) {
+                    break; // Out of time - keep the move from the last completed depth
+                }
+                
+                // Highest score wins, ties go to the earliest move in search order
+                int best = 0;
+                for (int i = 1; i < order.length; i++) {
+                    if (lines[i] != null && scores[i] > scores[best]) {
+                        best = i;
+                    }
+                }
+                bestCell = order[best];
+                previousPv = lines[best];
+                completedDepth = depth;
+                control.offer(Move.fromCell(bestCell, size));
+                
+                if (Math.abs(scores[best]) > EVAL_LIMIT) {
+                    break; // Forced win or loss found - deeper search cannot change it
+                }
+            }
+            recordStats();
+            return bestCell;
+        }
+        
+        private void recordStats() {
+            if (!reportStats) {
+                return;
+            }
+            long nodes = main.nodes;
+            long cutoffs = main.cutoffs;
+            long firstMoveCutoffs = main.firstMoveCutoffs;
+            long tableProbes = main.tableProbes;
+            long tableHits = main.tableHits;
+            for (Search helper : helpers) {
+                nodes += helper.nodes;
+                cutoffs += helper.cutoffs;
+                firstMoveCutoffs += helper.firstMoveCutoffs;
+                tableProbes += helper.tableProbes;
+                tableHits += helper.tableHits;
+            }
+            lastStats = new SearchStats(completedDepth, nodes, cutoffs, firstMoveCutoffs, tableProbes, tableHits,
+                    System.nanoTime() - startTime);
+            if (Metrics.ENABLED) {
+                Metrics.recordSearch(lastStats);
+            }
+        }
+        
+        /**
+         * Fills scores/lines for the root moves - lines[i] is null unless scores[i] is exact
+         * Returns false if the deadline cut the iteration short
+         */
+        private boolean searchRoot(int[] order, int[] scores, int[][] lines) {
+            // The eldest brother is always searched alone with a full window
+            scores[0] = main.searchRootMove(order[0], Integer.MIN_VALUE);
+            if (main.aborted) return false;
+            lines[0] = main.rootLine(order[0]);
+            
+            if (helpers.length == 0) {
+                int bestScore = scores[0];
+                for (int i = 1; i < order.length; i++) {
+                    scores[i] = main.searchRootMove(order[i], bestScore);
+                    if (main.aborted) return false;
+                    if (scores[i] > bestScore) {
+                        bestScore = scores[i];
+                        lines[i] = main.rootLine(order[i]);
+                    }
+                }
+                return true;
+            }
+            
+            AtomicInteger sharedBest = new AtomicInteger(scores[0]);
+            AtomicInteger nextMove = new AtomicInteger(1);
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (Search helper : helpers) {
+                workers.add(() -> {
+                    int i;
+                    while ((i = nextMove.getAndIncrement()) < order.length && !helper.aborted) {
+                        int alpha = sharedBest.get() - 1;
+                        scores[i] = helper.searchRootMove(order[i], alpha);
+                        if (!helper.aborted && scores[i] > alpha) {
+                            lines[i] = helper.rootLine(order[i]);
+                            sharedBest.accumulateAndGet(scores[i], Math::max);
+                        }
+                    }
+                    return null;
+                });
+            }
+            
+            for (Future<Void> result : pool.invokeAll(workers)) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Parallel search failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            
+            for (Search helper : helpers) {
+                if (helper.aborted) return false;
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Per-thread search state - the board being searched, the clock, the principal variation
+     * and the move ordering tables (killers and history are per thread, so no sharing)
+     */
+    private class Search {
+        private final Board board;
+        private final TurnOrder order;
+        private final int players;
+        private final int botIndex; // position of the bot in the turn order
+        private final char botSymbol;
+        private final int size;
+        private final long[] moverKeys; // hash salt per player to move, also keyed by bot perspective
+        private final long deadline;
+        private final int timeCheckMask;
+        private final SearchControl control;
+        private final boolean maxN;
+        
+        private int iterationDepth;
+        private long nodes;
+        private long cutoffs;
+        private long firstMoveCutoffs;
+        private long tableProbes;
+        private long tableHits;
+        private boolean aborted;
+        
+        // Move lists with their ordering keys, one pair of buffers per ply
+        private int[][] moveLists = new int[0][];
+        private long[][] moveKeys = new long[0][];
+        private int[][] killers = new int[0][]; // two quiet moves per ply that caused a cutoff
+        private final int[][] history; // [player][cell] - cutoff counts weighted by remaining depth
+        
+        // Triangular PV table for the running iteration, and the PV of the last completed one
+        private int[][] pvTable;
+        private int[] pvLength;
+        private int[] previousPv;
+        private boolean followPv;
+        
+        private int[][] values; // max-n score vectors, one per ply
+        
+        Search(Board board, char botSymbol, long deadline, SearchControl control) {
+            this.board = board;
+            this.order = TurnOrder.of(board, botSymbol);
+            this.players = order.size();
+            this.botIndex = order.indexOf(botSymbol);
+            this.botSymbol = botSymbol;
+            this.size = board.getSize();
+            this.timeCheckMask = Integer.highestOneBit(
+                    Math.max(1, Math.min(MAX_TIME_CHECK_INTERVAL, TIME_CHECK_CELLS / (size * size)))) - 1;
+            this.deadline = deadline;
+            this.control = control;
+            this.maxN = players > 2 && config.getMultiplayerMode() == SearchConfig.MultiplayerMode.MAX_N;
+            this.history = new int[players][size * size];
+            
+            // Scores are from the bot's point of view, so cached entries are keyed per bot symbol too
+            long perspectiveKey = Board.zobristKey(-1, botSymbol);
+            this.moverKeys = new long[players];
+            for (int p = 0; p < players; p++) {
+                moverKeys[p] = Board.zobristKey(-2, order.symbolAt(p)) ^ perspectiveKey;
+            }
+        }
+        
+        void startIteration(int depth, int[] previousPv) {
+            this.iterationDepth = depth;
+            this.previousPv = previousPv;
+            this.pvTable = new int[depth + 1][depth + 1];
+            this.pvLength = new int[depth + 1];
+            if (maxN) {
+                this.values = new int[depth + 1][players];
+            }
+            
+            // Ordering buffers only grow, and killers survive into the next iteration; no ply has
+            // more moves than the root has empty cells
+            int plies = moveLists.length;
+            if (plies < depth + 1) {
+                int moves = board.getEmptyCount();
+                moveLists = Arrays.copyOf(moveLists, depth + 1);
+                moveKeys = Arrays.copyOf(moveKeys, depth + 1);
+                killers = Arrays.copyOf(killers, depth + 1);
+                for (int ply = plies; ply <= depth; ply++) {
+                    moveLists[ply] = new int[moves];
+                    moveKeys[ply] = new long[moves];
+                    killers[ply] = new int[] {TranspositionTable.NO_MOVE, TranspositionTable.NO_MOVE};
+                }
+            }
+        }
+        
+        /**
+         * Root moves in search order: previous PV move, wins, blocks, then center first
+         * Killers and history are left out, so every thread and search mode sees the same order
+         */
+        int[] rootMoves() {
+            int pvCell = previousPv.length > 0 ? previousPv[0] : TranspositionTable.NO_MOVE;
+            // Blocks count even at depth 1: the game goes on past the horizon, so ties should favor them
+            int count = orderMoves(0, botIndex, pvCell, TranspositionTable.NO_MOVE, Integer.MAX_VALUE, false);
+            
+            // The whole list is needed, so one sort instead of count selection passes (O(n²), which
+            // never ends on large boards). Without history a key is band and center only, so rank
+            // and cell pack into one long: higher rank first, then the lower cell, as in nextMove
+            int[] cells = moveLists[0];
+            long[] keys = moveKeys[0];
+            long[] packed = new long[count];
+            for (int i = 0; i < count; i++) {
+                int rank = (int) (keys[i] >>> 48) << 16 | (int) (keys[i] & CENTER_MASK);
+                packed[i] = (long) (ROOT_RANK_MASK - rank) << 31 | cells[i];
+            }
+            Arrays.sort(packed);
+            int[] moves = new int[count];
+            for (int n = 0; n < count; n++) {
+                moves[n] = (int) (packed[n] & Integer.MAX_VALUE);
+            }
+            return moves;
+        }
+        
+        /**
+         * Scores one root move for the bot, searching the reply tree below it
+         * Nothing at or below alpha can become the new best move, so alpha is used for pruning
+         */
+        int searchRootMove(int cell, int alpha) {
+            int next = order.next(botIndex);
+            
+            followPv = previousPv.length > 0 && previousPv[0] == cell;
+            board.makeMove(cell, botSymbol);
+            int score;
+            if (maxN) {
+                maxN(1, next, alpha);
+                score = values[1][botIndex];
+            } else {
+                score = minimax(1, next, alpha, Integer.MAX_VALUE);
+            }
+            board.undoMove(cell);
+            return score;
+        }
+        
+        /**
+         * The principal variation starting with the given root move, from the last searchRootMove
+         */
+        int[] rootLine(int cell) {
+            int length = Math.max(pvLength[1], 1);
+            int[] line = Arrays.copyOf(pvTable[1], length);
+            line[0] = cell;
+            return line;
+        }
+        
+        /**
+         * Minimax algorithm with alpha-beta pruning and transposition table lookups
+         * With 3+ players this is the paranoid search: every opponent is assumed to minimize the bot's score
+         * depth is the ply from the root of this search, mover the turn-order index of the player to move
+         */
+        private int minimax(int depth, int mover, int alpha, int beta) {
+            boolean onPv = followPv;
+            followPv = false;
+            pvLength[depth] = depth;
+            
+            // Terminal conditions - only the player who just moved can have won
+            int lastMover = mover == 0 ? players - 1 : mover - 1;
+            if (board.checkWin(order.symbolAt(lastMover))) {
+                return lastMover == botIndex ? WIN_SCORE - depth : depth - WIN_SCORE;
+            }
+            if (board.isFull()) return 0;
+            // Horizon nodes poll the clock too - one node over a wide board can have a million of them
+            if (outOfTime()) return 0;
+            if (depth >= iterationDepth) return evaluate();
+            
+            // Symmetric positions share one entry; its move is stored in canonical orientation
+            long key = board.getCanonicalHash() ^ moverKeys[mover];
+            int symmetry = board.getCanonicalSymmetry();
+            int remaining = Math.min(iterationDepth - depth, 255);
+            int alphaOrig = alpha;
+            int betaOrig = beta;
+            
+            long entry = table.probe(key);
+            tableProbes++;
+            if (entry != 0) {
+                tableHits++;
+            }
+            int tableMove = entry != 0 ? TranspositionTable.move(entry) : TranspositionTable.NO_MOVE;
+            if (tableMove != TranspositionTable.NO_MOVE) {
+                tableMove = board.transformCell(Board.inverseSymmetry(symmetry), tableMove);
+            }
+            if (entry != 0 && TranspositionTable.depth(entry) >= remaining) {
+                int stored = fromTableScore(TranspositionTable.score(entry), depth);
+                switch (TranspositionTable.bound(entry)) {
+                    case TranspositionTable.EXACT:
+                        return stored;
+                    case TranspositionTable.LOWER_BOUND:
+                        alpha = Math.max(alpha, stored);
+                        break;
+                    default:
+                        beta = Math.min(beta, stored);
+                        break;
+                }
+                if (beta <= alpha) return stored;
+            }
+            
+            boolean isMaximizing = mover == botIndex;
+            char moverSymbol = order.symbolAt(mover);
+            int next = order.next(mover);
+            int pvCell = onPv && depth < previousPv.length ? previousPv[depth] : TranspositionTable.NO_MOVE;
+            int bestScore = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            int bestCell = TranspositionTable.NO_MOVE;
+            
+            int count = orderMoves(depth, mover, pvCell, tableMove, remaining, true);
+            for (int n = 0; n < count && alpha < beta; n++) {
+                int cell = nextMove(depth, n, count);
+                followPv = cell == pvCell;
+                board.makeMove(cell, moverSymbol);
+                int score = minimax(depth + 1, next, alpha, beta);
+                board.undoMove(cell);
+                if (aborted) return 0;
+                
+                if (isMaximizing ? score > bestScore : score < bestScore) {
+                    bestScore = score;
+                    bestCell = cell;
+                    updatePv(depth, cell);
+                }
+                if (isMaximizing) {
+                    alpha = Math.max(alpha, score);
+                } else {
+                    beta = Math.min(beta, score);
+                }
+                if (alpha >= beta) {
+                    recordCutoff(depth, mover, cell, n, remaining);
+                }
+            }
+            
+            int bound = bestScore <= alphaOrig ? TranspositionTable.UPPER_BOUND
+                    : bestScore >= betaOrig ? TranspositionTable.LOWER_BOUND
+                    : TranspositionTable.EXACT;
+            int storedMove = bestCell != TranspositionTable.NO_MOVE ? board.transformCell(symmetry, bestCell) : bestCell;
+            table.store(key, toTableScore(bestScore, depth), remaining, bound, storedMove);
+            return bestScore;
+        }
+        
+        /**
+         * Max-n search with shallow pruning - every player maximizes their own score
+         * Writes the score vector (indexed by turn order) to values[depth]. Scores are >= 0 and sum
+         * to at most WIN_SCORE, so once the mover secures s the parent's player can get at most
+         * WIN_SCORE - s here; if that is no better than parentBound the node is cut off
+         */
+        private void maxN(int depth, int mover, int parentBound) {
+            boolean onPv = followPv;
+            followPv = false;
+            pvLength[depth] = depth;
+            int[] result = values[depth];
+            Arrays.fill(result, 0);
+            
+            // Terminal conditions - the winner scores, everyone else gets nothing
+            int lastMover = mover == 0 ? players - 1 : mover - 1;
+            if (board.checkWin(order.symbolAt(lastMover))) {
+                result[lastMover] = WIN_SCORE - depth;
+                return;
+            }
+            if (board.isFull()) return;
+            if (outOfTime()) return;
+            if (depth >= iterationDepth) {
+                // Every player keeps their open-line score, capped so the vector sums below WIN_SCORE
+                for (int p = 0; p < players; p++) {
+                    result[p] = Math.min(board.getLineScore(order.symbolAt(p)), EVAL_LIMIT / players);
+                }
+                return;
+            }
+            
+            char moverSymbol = order.symbolAt(mover);
+            int next = order.next(mover);
+            int pvCell = onPv && depth < previousPv.length ? previousPv[depth] : TranspositionTable.NO_MOVE;
+            int best = -1;
+            
+            int count = orderMoves(depth, mover, pvCell, TranspositionTable.NO_MOVE, iterationDepth - depth, true);
+            for (int n = 0; n < count; n++) {
+                int cell = nextMove(depth, n, count);
+                followPv = cell == pvCell;
+                board.makeMove(cell, moverSymbol);
+                maxN(depth + 1, next, best);
+                board.undoMove(cell);
+                if (aborted) return;
+                
+                int[] child = values[depth + 1];
+                if (child[mover] > best) {
+                    best = child[mover];
+                    System.arraycopy(child, 0, result, 0, players);
+                    updatePv(depth, cell);
+                }
+                
+                // Immediate pruning (an instant win cannot be improved) and shallow pruning
+                if (best == WIN_SCORE - depth - 1 || WIN_SCORE - best <= parentBound) {
+                    recordCutoff(depth, mover, cell, n, iterationDepth - depth);
+                    break;
+                }
+            }
+        }
+        
+        /**
+         * Fills the move list for this ply with every empty cell and its ordering key
+         * While the position is symmetric, a cell is left out if a symmetry maps it to a lower cell
+         * Returns the number of moves - take them best first with nextMove
+         */
+        private int orderMoves(int depth, int mover, int pvCell, int tableMove, int remaining, boolean useHeuristics) {
+            int[] moves = moveLists[depth];
+            long[] keys = moveKeys[depth];
+            int[] killer = killers[depth];
+            int[] scores = history[mover];
+            char moverSymbol = order.symbolAt(mover);
+            char nextSymbol = order.symbolAt(order.next(mover));
+            int count = 0;
+            
+            int symmetries = 0; // bit s is set when symmetry s leaves the position unchanged
+            for (int s = 1; s < Board.SYMMETRIES; s++) {
+                if (board.isSymmetricUnder(s)) {
+                    symmetries |= 1 << s;
+                }
+            }
+            
+            for (int i = 0; i < board.getEmptyCount(); i++) {
+                int cell = board.getEmptyCell(i);
+                int row = cell / size;
+                int col = cell % size;
+                if (symmetries != 0 && hasLowerTwin(cell, symmetries)) continue;
+                
+                long key;
+                if (cell == pvCell) {
+                    key = PV_MOVE;
+                } else if (cell == tableMove) {
+                    key = TABLE_MOVE;
+                } else if (board.wouldComplete(row, col, moverSymbol)) {
+                    key = WINNING_MOVE;
+                } else if (remaining > 1 && board.wouldComplete(row, col, nextSymbol)) {
+                    key = BLOCKING_MOVE; // a block only matters if the next player gets to move
+                } else if (useHeuristics && cell == killer[0]) {
+                    key = FIRST_KILLER;
+                } else if (useHeuristics && cell == killer[1]) {
+                    key = SECOND_KILLER;
+                } else {
+                    key = 0;
+                }
+                
+                // Center distance breaks ties below history: 2 * (size - 1) in the middle, 0 in a corner,
+                // clamped to its 16-bit field - beyond size 32768 the innermost cells simply tie
+                int center = 2 * (size - 1) - Math.abs(2 * row - size + 1) - Math.abs(2 * col - size + 1);
+                center = Math.min(center, CENTER_MASK);
+                long historyScore = useHeuristics ? scores[cell] : 0;
+                keys[count] = key | (historyScore << 16) | center;
+                moves[count++] = cell;
+            }
+            return count;
+        }
+        
+        /**
+         * Checks whether a symmetry of the position maps the cell to a lower cell (an equivalent move)
+         */
+        private boolean hasLowerTwin(int cell, int symmetries) {
+            for (int s = 1; s < Board.SYMMETRIES; s++) {
+                if ((symmetries & (1 << s)) != 0 && board.transformCell(s, cell) < cell) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Selection step over the move list: swaps the best remaining move into slot n and returns it
+         * Cheaper than a full sort when an early move causes a cutoff. Equal keys go to the lower
+         * cell, so the order never depends on how the board's empty-cell set happens to be arranged
+         */
+        private int nextMove(int depth, int n, int count) {
+            int[] moves = moveLists[depth];
+            long[] keys = moveKeys[depth];
+            int best = n;
+            for (int i = n + 1; i < count; i++) {
+                if (keys[i] > keys[best] || (keys[i] == keys[best] && moves[i] < moves[best])) {
+                    best = i;
+                }
+            }
+            
+            int move = moves[best];
+            long key = keys[best];
+            moves[best] = moves[n];
+            keys[best] = keys[n];
+            moves[n] = move;
+            keys[n] = key;
+            return move;
+        }
+        
+        /**
+         * Counts the cutoff and credits the move in the killer and history tables
+         */
+        private void recordCutoff(int depth, int mover, int cell, int moveNumber, int remaining) {
+            cutoffs++;
+            if (moveNumber == 0) {
+                firstMoveCutoffs++;
+            }
+            
+            int[] killer = killers[depth];
+            if (killer[0] != cell) {
+                killer[1] = killer[0];
+                killer[0] = cell;
+            }
+            
+            int[] scores = history[mover];
+            int bonus = remaining * remaining;
+            scores[cell] = scores[cell] > Integer.MAX_VALUE - bonus ? Integer.MAX_VALUE : scores[cell] + bonus;
+        }
+        
+        /**
+         * Heuristic score of a horizon position for the bot: its open lines minus everyone else's
+         */
+        private int evaluate() {
+            int score = 0;
+            for (int p = 0; p < players; p++) {
+                int lineScore = board.getLineScore(order.symbolAt(p));
+                score += p == botIndex ? lineScore : -lineScore;
+            }
+            return Math.max(-EVAL_LIMIT + 1, Math.min(EVAL_LIMIT - 1, score));
+        }
+        
+        private boolean outOfTime() {
+            if ((++nodes & timeCheckMask) == 0 && (System.nanoTime() >= deadline || control.shouldStop())) {
+                aborted = true;
+            }
+            return aborted;
+        }
+        
+        private void updatePv(int depth, int cell) {
+            int[] line = pvTable[depth];
+            line[depth] = cell;
+            int childLength = depth + 1 < pvLength.length ? pvLength[depth + 1] : depth + 1;
+            for (int i = depth + 1; i < childLength; i++) {
+                line[i] = pvTable[depth + 1][i];
+            }
+            pvLength[depth] = Math.max(childLength, depth + 1);
+        }
+    }
+}
\ No newline at end of file
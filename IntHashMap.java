@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative int keys to int values, with no boxing
+ * Design Decision: Linear probing over parallel key/value arrays kept at most half full, with
+ * backward-shift deletion instead of tombstones, so make/undo sequences never degrade the table
+ */
+final class IntHashMap {
+    private static final int FREE = -1; // keys are cell indexes, never negative
+    private static final int MIN_CAPACITY = 16;
+    
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    
+    IntHashMap() {
+        this(MIN_CAPACITY);
+    }
+    
+    private IntHashMap(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, FREE);
+    }
+    
+    private IntHashMap(IntHashMap other) {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.mask = other.mask;
+        this.size = other.size;
+    }
+    
+    IntHashMap copy() {
+        return new IntHashMap(this);
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * The value stored for key, or missing if there is none
+     */
+    int get(int key, int missing) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == FREE) {
+                return missing;
+            }
+        }
+    }
+    
+    void put(int key, int value) {
+        int i = slot(key);
+        for (; keys[i] != FREE; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+    
+    void remove(int key) {
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        
+        // Shift later entries of the probe run back, so no lookup stops early at the hole
+        for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = FREE;
+        size--;
+    }
+    
+    private int slot(int key) {
+        int h = key * 0x9E3779B9; // Fibonacci hashing - row-major cells spread well
+        return (h ^ (h >>> 16)) & mask;
+    }
+    
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, FREE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != FREE) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for GameServer - many socket clients each playing a series of games against a bot
+ * Usage: java LoadGenerator clients games size bot [--port=N] [--bot-threads=N]
+ * Without --port an in-process server is started on a free port
+ * Design Decision: Clients play random legal moves from their own mirror of the board, so the
+ * numbers measure the server (protocol, scheduling, bot searches) rather than client thinking
+ * Design Decision: Two latencies per move - until the server acknowledges it (MOVED) and until
+ * the client's next turn comes back, which includes the bot's reply
+ */
+public class LoadGenerator {
+    private static final String HUMAN = "human";
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.out.println("Usage: java LoadGenerator clients games size bot [--port=N] [--bot-threads=N]");
+            return;
+        }
+        int clients = Integer.parseInt(args[0]);
+        int games = Integer.parseInt(args[1]);
+        int size = Integer.parseInt(args[2]);
+        String bot = args[3].toLowerCase();
+        int port = -1;
+        int botThreads = Runtime.getRuntime().availableProcessors();
+        for (int i = 4; i < args.length; i++) {
+            if (args[i].startsWith("--port=")) {
+                port = Integer.parseInt(args[i].substring("--port=".length()));
+            } else if (args[i].startsWith("--bot-threads=")) {
+                botThreads = Integer.parseInt(args[i].substring("--bot-threads=".length()));
+            }
+        }
+        
+        GameServer server = null;
+        if (port < 0) {
+            server = new GameServer(botThreads);
+            port = server.listen(0);
+        }
+        
+        try {
+            run(port, clients, games, size, bot);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+    
+    private static void run(int port, int clients, int games, int size, String bot) throws Exception {
+        List<Client> all = new ArrayList<>();
+        AtomicLong[] outcomes = {new AtomicLong(), new AtomicLong(), new AtomicLong()}; // won, lost, draw
+        SplittableRandom seeds = new SplittableRandom();
+        
+        long start = System.nanoTime();
+        ExecutorService threads = GameServer.newVirtualThreadExecutor();
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                Client client = new Client(port, size, bot, seeds.split(), outcomes);
+                all.add(client);
+                running.add(threads.submit(() -> {
+                    client.play(games);
+                    return null;
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        Samples ack = new Samples();
+        Samples turn = new Samples();
+        for (Client client : all) {
+            ack.addAll(client.ack);
+            turn.addAll(client.turn);
+        }
+        
+        long total = (long) clients * games;
+        System.out.printf("%d clients x %d games on %dx%d vs %s: %.2f s, %.0f games/s%n",
+                clients, games, size, size, bot, seconds, total / seconds);
+        System.out.printf("Client won %d, lost %d, draw %d%n", outcomes[0].get(), outcomes[1].get(), outcomes[2].get());
+        System.out.println("Move ack   " + ack.summary());
+        System.out.println("Turn trip  " + turn.summary());
+    }
+    
+    /**
+     * One connection playing seat 0 of consecutive games
+     */
+    private static class Client {
+        private final int port;
+        private final int size;
+        private final String bot;
+        private final SplittableRandom random;
+        private final AtomicLong[] outcomes;
+        private final Samples ack = new Samples();
+        private final Samples turn = new Samples();
+        
+        Client(int port, int size, String bot, SplittableRandom random, AtomicLong[] outcomes) {
+            this.port = port;
+            this.size = size;
+            this.bot = bot;
+            this.random = random;
+            this.outcomes = outcomes;
+        }
+        
+        void play(int games) throws IOException {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                socket.setTcpNoDelay(true);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+                for (int g = 0; g < games; g++) {
+                    playGame(in, out);
+                }
+                out.println("QUIT");
+            }
+        }
+        
+        private void playGame(BufferedReader in, PrintWriter out) throws IOException {
+            Board board = new Board(size, 'X', 'O');
+            out.println("NEW " + size + " " + HUMAN + " " + bot);
+            long sentAt = 0;
+            
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split(" ");
+                switch (parts[0]) {
+                    case "TURN":
+                        if (parts[1].equals("0")) {
+                            if (sentAt != 0) {
+                                turn.add(System.nanoTime() - sentAt);
+                            }
+                            int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+                            sentAt = System.nanoTime();
+                            out.println("MOVE " + cell / size + " " + cell % size);
+                        }
+                        break;
+                    case "MOVED":
+                        int seat = Integer.parseInt(parts[1]);
+                        if (seat == 0) {
+                            ack.add(System.nanoTime() - sentAt);
+                        }
+                        board.makeMove(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), seat == 0 ? 'X' : 'O');
+                        break;
+                    case "END":
+                        if (sentAt != 0) {
+                            turn.add(System.nanoTime() - sentAt);
+                        }
+                        outcomes[parts[1].equals("0") ? 0 : parts[1].equals("draw") ? 2 : 1].incrementAndGet();
+                        return;
+                    case "ERROR":
+                        throw new IllegalStateException("Server error: " + line);
+                    default:
+                        // GAME id
+                }
+            }
+            throw new IOException("Server closed the connection mid-game");
+        }
+    }
+    
+    /**
+     * Growable latency buffer in nanoseconds - one per client while running, merged for the report
+     */
+    private static class Samples {
+        private long[] values = new long[256];
+        private int count;
+        
+        void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+        
+        void addAll(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.values[i]);
+            }
+        }
+        
+        String summary() {
+            if (count == 0) {
+                return "no samples";
+            }
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return String.format("p50 %s  p90 %s  p99 %s  max %s  (%d samples)",
+                    micros(sorted, 0.50), micros(sorted, 0.90), micros(sorted, 0.99), micros(sorted, 1.0), count);
+        }
+        
+        private static String micros(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return String.format("%.0fus", sorted[Math.max(0, index)] / 1e3);
+        }
+    }
+}
\ No newline at end of file
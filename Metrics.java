@@ -0,0 +1,479 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters and histograms for the bots and the game loops
+ * Design Decision: The system property tictactoe.metrics (default true) is read once into a static
+ * final flag, and every recording site checks it - with -Dtictactoe.metrics=false the JIT folds
+ * those branches away, so disabled metrics cost nothing
+ * Design Decision: Counters are LongAdders, striped per contending thread, and the search hot path
+ * never touches them: searches keep plain per-thread counters and add them in once per move
+ * Design Decision: Readers get an immutable Snapshot, in process through snapshot() or over JMX
+ * through the MetricsMXBean that registerMBean publishes
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("tictactoe.metrics", "true"));
+    public static final String MBEAN_NAME = "TicTacToe:type=Metrics";
+    
+    // How a medium bot chose its move, for recordMediumMove
+    public static final int MEDIUM_WIN = 0;
+    public static final int MEDIUM_BLOCK = 1;
+    public static final int MEDIUM_CENTER = 2;
+    public static final int MEDIUM_RANDOM = 3;
+    
+    // Hard bot searches
+    private static final LongAdder searches = new LongAdder();
+    private static final LongAdder searchNodes = new LongAdder();
+    private static final LongAdder searchNanos = new LongAdder();
+    private static final LongAdder cutoffs = new LongAdder();
+    private static final LongAdder firstMoveCutoffs = new LongAdder();
+    private static final LongAdder tableProbes = new LongAdder();
+    private static final LongAdder tableHits = new LongAdder();
+    private static final LongAdder depthSum = new LongAdder();
+    private static final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private static final Histogram searchTime = new Histogram();
+    
+    // Medium bot decisions, indexed by MEDIUM_*
+    private static final LongAdder[] mediumMoves = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+    
+    // Game loops - Game and GameSession
+    private static final LongAdder moves = new LongAdder();
+    private static final LongAdder invalidMoves = new LongAdder();
+    private static final Histogram thinkTime = new Histogram(); // bot moves only - humans take their time
+    
+    private static final LongAdder boardCopies = new LongAdder();
+    
+    private Metrics() {
+    }
+    
+    /**
+     * Adds one finished hard bot search
+     */
+    static void recordSearch(SearchStats stats) {
+        searches.increment();
+        searchNodes.add(stats.getNodes());
+        searchNanos.add(stats.getElapsedNanos());
+        cutoffs.add(stats.getCutoffs());
+        firstMoveCutoffs.add(stats.getFirstMoveCutoffs());
+        tableProbes.add(stats.getTableProbes());
+        tableHits.add(stats.getTableHits());
+        depthSum.add(stats.getDepth());
+        maxDepth.accumulate(stats.getDepth());
+        searchTime.record(stats.getElapsedNanos());
+    }
+    
+    /**
+     * Adds one medium bot move, chosen by the given MEDIUM_* rule
+     */
+    static void recordMediumMove(int rule) {
+        mediumMoves[rule].increment();
+    }
+    
+    /**
+     * Adds one move played in a game loop, with the time the player took for it
+     */
+    static void recordMove(Player player, long thinkNanos) {
+        moves.increment();
+        if (!player.isHuman()) {
+            thinkTime.record(thinkNanos);
+        }
+    }
+    
+    /**
+     * Adds one rejected move - a human retry, or a bot whose move had to be replaced
+     */
+    static void recordInvalidMove() {
+        invalidMoves.increment();
+    }
+    
+    static void recordBoardCopy() {
+        boardCopies.increment();
+    }
+    
+    /**
+     * Current totals - consistent per counter, but not an atomic cut across counters
+     */
+    public static Snapshot snapshot() {
+        long[] medium = new long[mediumMoves.length];
+        for (int i = 0; i < medium.length; i++) {
+            medium[i] = mediumMoves[i].sum();
+        }
+        return new Snapshot(searches.sum(), searchNodes.sum(), searchNanos.sum(), cutoffs.sum(),
+                firstMoveCutoffs.sum(), tableProbes.sum(), tableHits.sum(), depthSum.sum(), maxDepth.get(),
+                searchTime.counts(), medium, moves.sum(), invalidMoves.sum(), thinkTime.counts(), boardCopies.sum());
+    }
+    
+    /**
+     * Zeroes everything; updates racing with the reset may land on either side of it
+     */
+    public static void reset() {
+        for (LongAdder adder : new LongAdder[] {searches, searchNodes, searchNanos, cutoffs, firstMoveCutoffs,
+                tableProbes, tableHits, depthSum, moves, invalidMoves, boardCopies}) {
+            adder.reset();
+        }
+        for (LongAdder adder : mediumMoves) {
+            adder.reset();
+        }
+        maxDepth.reset();
+        searchTime.reset();
+        thinkTime.reset();
+    }
+    
+    /**
+     * Publishes the metrics on the platform MBean server as MBEAN_NAME (once per process)
+     * Returns false if metrics are disabled, so there is nothing to publish
+     */
+    public static synchronized boolean registerMBean() {
+        if (!ENABLED) {
+            return false;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MBean(), name);
+            }
+            return true;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + MBEAN_NAME, e);
+        }
+    }
+    
+    /**
+     * Log-linear histogram of non-negative values - four buckets per power of two, so a
+     * percentile read from it is within 25% of the true value
+     */
+    static final class Histogram {
+        private static final int SUB_BITS = 2;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int BUCKETS = 64 * SUB_BUCKETS;
+        
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+        
+        void record(long value) {
+            buckets[index(Math.max(0, value))].increment();
+        }
+        
+        long[] counts() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+        
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+        
+        /**
+         * Values below SUB_BUCKETS get a bucket each; above that, the leading bit picks the
+         * power of two and the next SUB_BITS bits the bucket within it
+         */
+        static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+        }
+        
+        /**
+         * Largest value that lands in the bucket
+         */
+        static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = (index >>> SUB_BITS) + SUB_BITS - 1;
+            long sub = index & (SUB_BUCKETS - 1);
+            return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+        
+        /**
+         * The value at percentile p (0..100) of the counts, as its bucket's upper bound; 0 if empty
+         */
+        static long percentile(long[] counts, double p) {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * p / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(counts.length - 1);
+        }
+    }
+    
+    /**
+     * Immutable totals taken by snapshot()
+     */
+    public static final class Snapshot {
+        private final long searches;
+        private final long searchNodes;
+        private final long searchNanos;
+        private final long cutoffs;
+        private final long firstMoveCutoffs;
+        private final long tableProbes;
+        private final long tableHits;
+        private final long depthSum;
+        private final long maxDepth;
+        private final long[] searchTime;
+        private final long[] mediumMoves;
+        private final long moves;
+        private final long invalidMoves;
+        private final long[] thinkTime;
+        private final long boardCopies;
+        
+        private Snapshot(long searches, long searchNodes, long searchNanos, long cutoffs, long firstMoveCutoffs,
+                long tableProbes, long tableHits, long depthSum, long maxDepth, long[] searchTime,
+                long[] mediumMoves, long moves, long invalidMoves, long[] thinkTime, long boardCopies) {
+            this.searches = searches;
+            this.searchNodes = searchNodes;
+            this.searchNanos = searchNanos;
+            this.cutoffs = cutoffs;
+            this.firstMoveCutoffs = firstMoveCutoffs;
+            this.tableProbes = tableProbes;
+            this.tableHits = tableHits;
+            this.depthSum = depthSum;
+            this.maxDepth = maxDepth;
+            this.searchTime = searchTime;
+            this.mediumMoves = mediumMoves;
+            this.moves = moves;
+            this.invalidMoves = invalidMoves;
+            this.thinkTime = thinkTime;
+            this.boardCopies = boardCopies;
+        }
+        
+        /**
+         * Hard bot searches for real moves (pondering is not counted)
+         */
+        public long getSearches() {
+            return searches;
+        }
+        
+        public long getSearchNodes() {
+            return searchNodes;
+        }
+        
+        /**
+         * Nodes per second of search time, over all hard bot searches
+         */
+        public double getNodesPerSecond() {
+            return searchNanos == 0 ? 0 : searchNodes * 1e9 / searchNanos;
+        }
+        
+        /**
+         * Mean deepest completed iteration per search, in plies
+         */
+        public double getAverageDepth() {
+            return searches == 0 ? 0 : (double) depthSum / searches;
+        }
+        
+        public long getMaxDepth() {
+            return maxDepth;
+        }
+        
+        public long getCutoffs() {
+            return cutoffs;
+        }
+        
+        public long getFirstMoveCutoffs() {
+            return firstMoveCutoffs;
+        }
+        
+        public long getTableProbes() {
+            return tableProbes;
+        }
+        
+        public long getTableHits() {
+            return tableHits;
+        }
+        
+        public double getTableHitRate() {
+            return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+        }
+        
+        /**
+         * Hard bot search time at percentile p (0..100), in milliseconds
+         */
+        public double getSearchTimeMillis(double p) {
+            return Histogram.percentile(searchTime, p) / 1e6;
+        }
+        
+        /**
+         * Medium bot moves chosen by a MEDIUM_* rule
+         */
+        public long getMediumMoves(int rule) {
+            return mediumMoves[rule];
+        }
+        
+        /**
+         * Moves played in Game and GameSession loops
+         */
+        public long getMoves() {
+            return moves;
+        }
+        
+        public long getInvalidMoves() {
+            return invalidMoves;
+        }
+        
+        /**
+         * Bot think time per move in the game loops at percentile p (0..100), in milliseconds
+         */
+        public double getThinkTimeMillis(double p) {
+            return Histogram.percentile(thinkTime, p) / 1e6;
+        }
+        
+        public long getBoardCopies() {
+            return boardCopies;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("hard searches %d: %d nodes (%.0f/s), depth %.1f avg / %d max, %d cutoffs "
+                    + "(%.1f%% on first move), %.1f%% table hits, search time p50 %.2f / p99 %.2f ms%n"
+                    + "medium moves: %d wins, %d blocks, %d centers, %d random%n"
+                    + "game moves %d, %d invalid, bot think time p50 %.2f / p90 %.2f / p99 %.2f ms%n"
+                    + "board copies %d%n",
+                    searches, searchNodes, getNodesPerSecond(), getAverageDepth(), maxDepth, cutoffs,
+                    cutoffs == 0 ? 0 : 100.0 * firstMoveCutoffs / cutoffs, 100 * getTableHitRate(),
+                    getSearchTimeMillis(50), getSearchTimeMillis(99),
+                    mediumMoves[MEDIUM_WIN], mediumMoves[MEDIUM_BLOCK], mediumMoves[MEDIUM_CENTER], mediumMoves[MEDIUM_RANDOM],
+                    moves, invalidMoves, getThinkTimeMillis(50), getThinkTimeMillis(90), getThinkTimeMillis(99),
+                    boardCopies);
+        }
+    }
+    
+    /**
+     * JMX view - every read takes a fresh snapshot
+     */
+    private static final class MBean implements MetricsMXBean {
+        @Override
+        public long getSearches() {
+            return snapshot().getSearches();
+        }
+        
+        @Override
+        public long getSearchNodes() {
+            return snapshot().getSearchNodes();
+        }
+        
+        @Override
+        public double getNodesPerSecond() {
+            return snapshot().getNodesPerSecond();
+        }
+        
+        @Override
+        public double getAverageDepth() {
+            return snapshot().getAverageDepth();
+        }
+        
+        @Override
+        public long getMaxDepth() {
+            return snapshot().getMaxDepth();
+        }
+        
+        @Override
+        public long getCutoffs() {
+            return snapshot().getCutoffs();
+        }
+        
+        @Override
+        public long getFirstMoveCutoffs() {
+            return snapshot().getFirstMoveCutoffs();
+        }
+        
+        @Override
+        public double getTableHitRate() {
+            return snapshot().getTableHitRate();
+        }
+        
+        @Override
+        public double getSearchTimeP50Millis() {
+            return snapshot().getSearchTimeMillis(50);
+        }
+        
+        @Override
+        public double getSearchTimeP99Millis() {
+            return snapshot().getSearchTimeMillis(99);
+        }
+        
+        @Override
+        public long getMediumWins() {
+            return snapshot().getMediumMoves(MEDIUM_WIN);
+        }
+        
+        @Override
+        public long getMediumBlocks() {
+            return snapshot().getMediumMoves(MEDIUM_BLOCK);
+        }
+        
+        @Override
+        public long getMediumCenters() {
+            return snapshot().getMediumMoves(MEDIUM_CENTER);
+        }
+        
+        @Override
+        public long getMediumRandomMoves() {
+            return snapshot().getMediumMoves(MEDIUM_RANDOM);
+        }
+        
+        @Override
+        public long getMoves() {
+            return snapshot().getMoves();
+        }
+        
+        @Override
+        public long getInvalidMoves() {
+            return snapshot().getInvalidMoves();
+        }
+        
+        @Override
+        public double getThinkTimeP50Millis() {
+            return snapshot().getThinkTimeMillis(50);
+        }
+        
+        @Override
+        public double getThinkTimeP90Millis() {
+            return snapshot().getThinkTimeMillis(90);
+        }
+        
+        @Override
+        public double getThinkTimeP99Millis() {
+            return snapshot().getThinkTimeMillis(99);
+        }
+        
+        @Override
+        public long getBoardCopies() {
+            return snapshot().getBoardCopies();
+        }
+        
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+/**
+ * JMX interface of Metrics, published as Metrics.MBEAN_NAME by Metrics.registerMBean
+ * Design Decision: Plain numeric attributes only, so jconsole and any JMX scraper can read
+ * them without the game classes on their classpath
+ */
+public interface MetricsMXBean {
+    long getSearches();
+    
+    long getSearchNodes();
+    
+    double getNodesPerSecond();
+    
+    double getAverageDepth();
+    
+    long getMaxDepth();
+    
+    long getCutoffs();
+    
+    long getFirstMoveCutoffs();
+    
+    double getTableHitRate();
+    
+    double getSearchTimeP50Millis();
+    
+    double getSearchTimeP99Millis();
+    
+    long getMediumWins();
+    
+    long getMediumBlocks();
+    
+    long getMediumCenters();
+    
+    long getMediumRandomMoves();
+    
+    long getMoves();
+    
+    long getInvalidMoves();
+    
+    double getThinkTimeP50Millis();
+    
+    double getThinkTimeP90Millis();
+    
+    double getThinkTimeP99Millis();
+    
+    long getBoardCopies();
+    
+    /**
+     * Zeroes every counter and histogram
+     */
+    void reset();
+}
\ No newline at end of file
@@ -0,0 +1,344 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo Tree Search (UCT) strategy for large boards and multiplayer games
+ * Design Decision: Each node keeps the reward of the player who moved into it, and every player
+ * picks the child that is best for themselves, so any number of players in the rotation works
+ * Design Decision: Playouts run on one reusable board and draw from its indexed empty-cell set -
+ * every move is undone in reverse order and put back at its old index, so the set's order at
+ * a node never changes and children can be expanded in that order; a playout allocates nothing
+ * Design Decision: With several threads each worker grows its own tree (root parallelization)
+ * and root visit counts are summed by cell at the end
+ * Design Decision: The clock is read by moves played, not by iterations, since an iteration's
+ * cost grows with the board; playouts stop after PLAYOUT_MAX_MOVES and count as a draw, so one
+ * iteration on a huge board still ends well inside a time budget
+ * Design Decision: A SearchControl is polled with the clock, and the most visited root move is
+ * offered to it at each poll; a stopped search plays the most visited move so far, which is
+ * what it would have returned at that point anyway
+ */
+class MonteCarloBotStrategy implements BotStrategy {
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int DEFAULT_ITERATIONS = 10_000; // Used when neither iterations nor time are set
+    private static final int TIME_CHECK_MOVES = 4096; // Moves played between clock reads
+    private static final int PLAYOUT_MAX_MOVES = 1024; // Longer playouts are scored as draws
+    
+    // Outcomes: a player index for a win, or one of these
+    private static final int OPEN = -2;
+    private static final int DRAW = -1;
+    
+    private final SearchConfig config;
+    private final ForkJoinPool pool; // shared, null when searching on the calling thread only
+    private final SplittableRandom seeds; // every tree gets its own split of this
+    
+    public MonteCarloBotStrategy() {
+        this(new SearchConfig());
+    }
+    
+    public MonteCarloBotStrategy(SearchConfig config) {
+        this(config, new SplittableRandom());
+    }
+    
+    /**
+     * Playouts draw from the given random source, so iteration-budgeted games are reproducible
+     */
+    public MonteCarloBotStrategy(SearchConfig config, SplittableRandom random) {
+        this.config = config;
+        this.pool = config.getPool();
+        this.seeds = random;
+    }
+    
+    @Override
+    public Move getMove(Board board, char symbol) {
+        return getMove(board, symbol, new SearchControl());
+    }
+    
+    @Override
+    public Move getMove(Board board, char symbol, SearchControl control) {
+        int size = board.getSize();
+        TurnOrder order = TurnOrder.of(board, symbol);
+        
+        long budget = config.getTimeBudgetMillis();
+        long deadline = budget > 0 ? System.nanoTime() + budget * 1_000_000L : Long.MAX_VALUE;
+        int iterations = config.getIterations() > 0 ? config.getIterations()
+                : budget > 0 ? Integer.MAX_VALUE : DEFAULT_ITERATIONS;
+        
+        Tree[] trees;
+        if (pool == null) {
+            trees = new Tree[] {new Tree(board.copy(), order, symbol, seeds.split())};
+            trees[0].search(iterations, deadline, control);
+        } else {
+            trees = searchInParallel(board, order, symbol, iterations, deadline, control);
+        }
+        
+        // Most visits wins, ties to the lower cell; trees share root moves, so sum visits by cell
+        IntHashMap visits = new IntHashMap();
+        int bestCell = -1;
+        int bestVisits = 0;
+        for (Tree tree : trees) {
+            for (int child = tree.firstChild[0]; child != 0; child = tree.nextSibling[child]) {
+                int cell = tree.cell[child];
+                int total = visits.get(cell, 0) + tree.visits[child];
+                visits.put(cell, total);
+                if (total > bestVisits || (total == bestVisits && cell < bestCell)) {
+                    bestCell = cell;
+                    bestVisits = total;
+                }
+            }
+        }
+        return bestCell >= 0 ? Move.fromCell(bestCell, size) : null; // No visits only when the board is full
+    }
+    
+    /**
+     * Runs one independent tree per worker and returns the searched trees
+     */
+    private Tree[] searchInParallel(Board board, TurnOrder order, char symbol, int iterations, long deadline,
+            SearchControl control) {
+        int threads = config.getThreads();
+        int perWorker = iterations == Integer.MAX_VALUE ? iterations : (iterations + threads - 1) / threads;
+        Tree[] trees = new Tree[threads];
+        List<Callable<Tree>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Tree tree = new Tree(board.copy(), order, symbol, seeds.split());
+            trees[t] = tree;
+            workers.add(() -> {
+                tree.search(perWorker, deadline, control);
+                return tree;
+            });
+        }
+        
+        for (Future<Tree> result : pool.invokeAll(workers)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Parallel search failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return trees;
+    }
+    
+    /**
+     * One search tree plus the board it is played out on
+     * Nodes are stored as parallel arrays indexed by node id; node 0 is the root
+     */
+    private static class Tree {
+        private final Board board;
+        private final TurnOrder order;
+        private final int players;
+        private final int rootPlayer; // index of the bot in the turn order
+        private final SplittableRandom random;
+        
+        // Moves currently applied and the empty-set index each came from, so they undo in order
+        private int[] appliedMoves = new int[64];
+        private int[] removedAt = new int[64];
+        private int applied;
+        private long played; // every move ever played, for the clock
+        
+        private int[] path = new int[64];
+        
+        private int[] firstChild;
+        private int[] nextSibling;
+        private int[] cell;
+        private int[] visits;
+        private int[] expanded;
+        private int[] outcome;
+        private double[] reward;
+        private int nodeCount;
+        private int mostVisited; // root child with the most visits, 0 before the first iteration
+        
+        Tree(Board board, TurnOrder order, char symbol, SplittableRandom random) {
+            this.board = board;
+            this.order = order;
+            this.players = order.size();
+            this.rootPlayer = order.indexOf(symbol);
+            this.random = random;
+            
+            int capacity = 1024;
+            this.firstChild = new int[capacity];
+            this.nextSibling = new int[capacity];
+            this.cell = new int[capacity];
+            this.visits = new int[capacity];
+            this.expanded = new int[capacity];
+            this.outcome = new int[capacity];
+            this.reward = new double[capacity];
+            newNode(-1, board.getEmptyCount() == 0 ? DRAW : OPEN);
+        }
+        
+        /**
+         * Runs UCT iterations; the root's children then hold the visit counts
+         */
+        void search(int iterations, long deadline, SearchControl control) {
+            long nextCheck = TIME_CHECK_MOVES;
+            for (int i = 0; i < iterations && outcome[0] == OPEN; i++) {
+                if (played >= nextCheck) {
+                    if (System.nanoTime() >= deadline || control.shouldStop()) {
+                        break;
+                    }
+                    if (mostVisited != 0) {
+                        control.offer(Move.fromCell(cell[mostVisited], board.getSize()));
+                    }
+                    nextCheck = played + TIME_CHECK_MOVES;
+                }
+                iterate();
+            }
+        }
+        
+        /**
+         * One selection / expansion / playout / backpropagation pass
+         */
+        private void iterate() {
+            int node = 0;
+            int depth = 0;
+            int result;
+            path[0] = 0;
+            
+            while (true) {
+                if (outcome[node] != OPEN) {
+                    result = outcome[node];
+                    break;
+                }
+                
+                int toMove = playerAt(depth);
+                if (expanded[node] < board.getEmptyCount()) {
+                    // Expansion: the next untried cell becomes a child, then a random playout from it
+                    int move = board.getEmptyCell(expanded[node]++);
+                    int child = newNode(move, OPEN);
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                    
+                    outcome[child] = play(move, toMove);
+                    pushPath(++depth, child);
+                    result = outcome[child] != OPEN ? outcome[child] : playout(depth);
+                    break;
+                }
+                
+                node = selectChild(node);
+                play(cell[node], toMove);
+                pushPath(++depth, node);
+            }
+            
+            // Backpropagation: each node is scored for the player who moved into it
+            visits[0]++;
+            for (int d = 1; d <= depth; d++) {
+                int n = path[d];
+                visits[n]++;
+                if (result == DRAW) {
+                    reward[n] += 1.0 / players;
+                } else if (result == playerAt(d - 1)) {
+                    reward[n] += 1.0;
+                }
+            }
+            if (depth > 0) {
+                int n = path[1];
+                if (mostVisited == 0 || visits[n] > visits[mostVisited]
+                        || (visits[n] == visits[mostVisited] && cell[n] < cell[mostVisited])) {
+                    mostVisited = n;
+                }
+            }
+            
+            while (applied > 0) {
+                undo();
+            }
+        }
+        
+        /**
+         * UCB1 over the children, from the point of view of the player choosing among them
+         */
+        private int selectChild(int node) {
+            double logParent = Math.log(visits[node]);
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            
+            for (int child = firstChild[node]; child != 0; child = nextSibling[child]) {
+                double value = reward[child] / visits[child]
+                        + EXPLORATION * Math.sqrt(logParent / visits[child]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+        
+        /**
+         * Random moves until someone wins, the board fills up or PLAYOUT_MAX_MOVES are played,
+         * then undoes them
+         */
+        private int playout(int depth) {
+            int start = applied;
+            int result = OPEN;
+            while (result == OPEN) {
+                if (applied - start == PLAYOUT_MAX_MOVES) {
+                    result = DRAW;
+                    break;
+                }
+                result = play(board.getEmptyCell(random.nextInt(board.getEmptyCount())), playerAt(depth++));
+            }
+            while (applied > start) {
+                undo();
+            }
+            return result;
+        }
+        
+        /**
+         * Places a move for the player at turn-order index and reports the outcome
+         */
+        private int play(int move, int player) {
+            if (applied == appliedMoves.length) {
+                appliedMoves = Arrays.copyOf(appliedMoves, applied * 2);
+                removedAt = Arrays.copyOf(removedAt, applied * 2);
+            }
+            appliedMoves[applied] = move;
+            removedAt[applied++] = board.getEmptyIndex(move);
+            played++;
+            
+            if (board.makeMove(move, order.symbolAt(player))) {
+                return player;
+            }
+            return board.isFull() ? DRAW : OPEN;
+        }
+        
+        private void undo() {
+            int move = appliedMoves[--applied];
+            board.undoMove(move);
+            board.moveEmptyCell(move, removedAt[applied]);
+        }
+        
+        private void pushPath(int depth, int node) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth] = node;
+        }
+        
+        private int playerAt(int depth) {
+            return (rootPlayer + depth) % players;
+        }
+        
+        private int newNode(int move, int result) {
+            if (nodeCount == cell.length) {
+                int capacity = nodeCount * 2;
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                cell = Arrays.copyOf(cell, capacity);
+                visits = Arrays.copyOf(visits, capacity);
+                expanded = Arrays.copyOf(expanded, capacity);
+                outcome = Arrays.copyOf(outcome, capacity);
+                reward = Arrays.copyOf(reward, capacity);
+            }
+            int node = nodeCount++;
+            cell[node] = move;
+            outcome[node] = result;
+            return node;
+        }
+    }
+}
\ No newline at end of file
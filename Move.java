@@ -15,6 +15,20 @@ public class Move {
         return col;
     }
     
+    /**
+     * Unpacks a cell index (row * boardSize + col), the move encoding strategies search with
+     */
+    public static Move fromCell(int cell, int boardSize) {
+        return new Move(cell / boardSize, cell % boardSize);
+    }
+    
+    /**
+     * Packs this move into a cell index (row * boardSize + col)
+     */
+    public int toCell(int boardSize) {
+        return row * boardSize + col;
+    }
+    
     @Override
     public String toString() {
         return "(" + row + ", " + col + ")";
@@ -0,0 +1,430 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Binary record of played games - an append-only file of compact game records
+ * File: magic, version, then one record per game:
+ *   'G', board size (varint), player count (byte),
+ *   per player: symbol (char), name length (byte), name (UTF-8),
+ *   moves: cell * players + player + 1 (64-bit varint each - it passes 2^31 on the largest boards), 0,
+ *   result (byte): winning player index, DRAW or UNFINISHED
+ * Design Decision: A Recorder encodes straight into its own byte array and hands only whole records
+ * to the channel, so several threads can record into one file without locking per move and a
+ * crash can at worst cut off the last record
+ * Design Decision: The Reader streams through a fixed buffer and reuses its arrays for every
+ * game, so replaying a file of millions of games needs memory for one game only
+ */
+public class MoveLog implements Closeable {
+    public static final int DRAW = -1;
+    public static final int UNFINISHED = -2;
+    
+    private static final int MAGIC = 0x54544C47; // "TTLG"
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+    private static final byte GAME_RECORD = 'G';
+    private static final int MAX_NAME_BYTES = 255;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final int MAX_LONG_VARINT_BYTES = 10;
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final FileChannel channel;
+    private final ReentrantLock writeLock = new ReentrantLock(); // keeps each record in one piece
+    
+    private MoveLog(FileChannel channel) {
+        this.channel = channel;
+    }
+    
+    /**
+     * Opens a log for appending, creating it (with its header) if needed
+     */
+    public static MoveLog open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).put(VERSION);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+        return new MoveLog(channel);
+    }
+    
+    /**
+     * A new recorder writing into this log - one per thread
+     */
+    public Recorder recorder() {
+        return new Recorder(this);
+    }
+    
+    /**
+     * Opens a log for streaming replay
+     */
+    public static Reader read(Path file) throws IOException {
+        return new Reader(FileChannel.open(file, StandardOpenOption.READ));
+    }
+    
+    private void write(ByteBuffer records) throws IOException {
+        writeLock.lock();
+        try {
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Closes the file - recorders must be closed (flushed) first
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    /**
+     * Encodes the games of one thread; only startGame, flush and close touch the file
+     */
+    public static class Recorder implements Closeable {
+        private final MoveLog log;
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int gameStart = -1; // buffer position of the open record, -1 between games
+        private int players;
+        
+        // Encoded names of the previous game - lineups rarely change between games
+        private final String[] lastNames = new String[Game.SYMBOLS.length];
+        private final byte[][] nameBytes = new byte[Game.SYMBOLS.length][];
+        
+        private Recorder(MoveLog log) {
+            this.log = log;
+        }
+        
+        /**
+         * Opens the record of a new game; an unfinished previous game is closed as UNFINISHED
+         */
+        public void startGame(int size, char[] symbols, String[] names) throws IOException {
+            if (symbols.length > Game.SYMBOLS.length) {
+                throw new IllegalArgumentException("Too many players for the move log");
+            }
+            if (gameStart >= 0) {
+                endGame(UNFINISHED);
+            }
+            
+            // Room for the header and the end of the record; move() makes room for the moves as they come
+            int maxHeader = 2 + MAX_VARINT_BYTES + symbols.length * (3 + MAX_NAME_BYTES) + 2;
+            if (buffer.length - position < maxHeader) {
+                flush();
+                if (buffer.length < maxHeader) {
+                    buffer = new byte[Math.max(maxHeader, buffer.length * 2)];
+                }
+            }
+            
+            gameStart = position;
+            players = symbols.length;
+            buffer[position++] = GAME_RECORD;
+            putVarint(size);
+            buffer[position++] = (byte) players;
+            for (int p = 0; p < players; p++) {
+                buffer[position++] = (byte) (symbols[p] >>> 8);
+                buffer[position++] = (byte) symbols[p];
+                byte[] name = encodedName(p, names[p]);
+                buffer[position++] = (byte) name.length;
+                System.arraycopy(name, 0, buffer, position, name.length);
+                position += name.length;
+            }
+        }
+        
+        /**
+         * Appends a move of the open game - cell is row * size + col, player the index in the roster
+         */
+        public void move(int cell, int player) {
+            // Keep room for this move plus the 2 bytes endGame writes; the open record must stay in one piece
+            if (buffer.length - position < MAX_LONG_VARINT_BYTES + 2) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            putVarint((long) cell * players + player + 1);
+        }
+        
+        /**
+         * Closes the open game with the winning player index, DRAW or UNFINISHED
+         */
+        public void endGame(int result) {
+            buffer[position++] = 0;
+            buffer[position++] = (byte) result;
+            gameStart = -1;
+        }
+        
+        /**
+         * Writes all finished records to the file; an open game stays buffered
+         */
+        public void flush() throws IOException {
+            int end = gameStart >= 0 ? gameStart : position;
+            log.write(ByteBuffer.wrap(buffer, 0, end));
+            
+            // Keep the open record, moved to the front
+            System.arraycopy(buffer, end, buffer, 0, position - end);
+            position -= end;
+            if (gameStart >= 0) {
+                gameStart = 0;
+            }
+        }
+        
+        /**
+         * Flushes; an open game is recorded as UNFINISHED
+         */
+        @Override
+        public void close() throws IOException {
+            if (gameStart >= 0) {
+                endGame(UNFINISHED);
+            }
+            flush();
+        }
+        
+        private byte[] encodedName(int player, String name) {
+            if (name != lastNames[player]) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                nameBytes[player] = bytes.length > MAX_NAME_BYTES ? Arrays.copyOf(bytes, MAX_NAME_BYTES) : bytes;
+                lastNames[player] = name;
+            }
+            return nameBytes[player];
+        }
+        
+        private void putVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+    }
+    
+    /**
+     * Streams the games of a log one at a time: while (reader.next()) { ... reader.getCell(i) ... }
+     */
+    public static class Reader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private boolean endOfFile;
+        
+        // The current game - reused for every record
+        private int size;
+        private int players;
+        private final char[] symbols = new char[Game.SYMBOLS.length];
+        private final byte[][] names = new byte[Game.SYMBOLS.length][MAX_NAME_BYTES];
+        private final int[] nameLengths = new int[Game.SYMBOLS.length];
+        private int[] cells = new int[64];
+        private int[] movers = new int[64];
+        private int moveCount;
+        private int result;
+        private long games;
+        
+        private Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            buffer.flip();
+            if (!ensure(HEADER_BYTES) || buffer.getInt() != MAGIC) {
+                channel.close();
+                throw new IOException("Not a move log");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                channel.close();
+                throw new IOException("Unsupported move log version " + version);
+            }
+        }
+        
+        /**
+         * Advances to the next game; false at the end of the file or at a cut-off last record
+         */
+        public boolean next() throws IOException {
+            try {
+                if (!ensure(1)) {
+                    return false;
+                }
+                if (buffer.get() != GAME_RECORD) {
+                    throw new IOException("Corrupt move log after " + games + " games");
+                }
+                size = (int) getVarint();
+                need(1);
+                players = buffer.get();
+                for (int p = 0; p < players; p++) {
+                    need(3);
+                    symbols[p] = buffer.getChar();
+                    nameLengths[p] = buffer.get() & 0xFF;
+                    need(nameLengths[p]);
+                    buffer.get(names[p], 0, nameLengths[p]);
+                }
+                
+                moveCount = 0;
+                long move;
+                while ((move = getVarint()) != 0) {
+                    if (moveCount == cells.length) {
+                        cells = Arrays.copyOf(cells, moveCount * 2);
+                        movers = Arrays.copyOf(movers, moveCount * 2);
+                    }
+                    cells[moveCount] = (int) ((move - 1) / players);
+                    movers[moveCount++] = (int) ((move - 1) % players);
+                }
+                need(1);
+                result = buffer.get();
+                games++;
+                return true;
+            } catch (EOFException e) {
+                return false; // Last record was cut off mid-write
+            }
+        }
+        
+        public int getBoardSize() {
+            return size;
+        }
+        
+        public int getPlayerCount() {
+            return players;
+        }
+        
+        public char getSymbol(int player) {
+            return symbols[player];
+        }
+        
+        public String getName(int player) {
+            return new String(names[player], 0, nameLengths[player], StandardCharsets.UTF_8);
+        }
+        
+        public int getMoveCount() {
+            return moveCount;
+        }
+        
+        /**
+         * Cell of the i-th move, as row * size + col
+         */
+        public int getCell(int move) {
+            return cells[move];
+        }
+        
+        /**
+         * Roster index of the player who made the i-th move
+         */
+        public int getPlayer(int move) {
+            return movers[move];
+        }
+        
+        /**
+         * Winning player index, DRAW or UNFINISHED
+         */
+        public int getResult() {
+            return result;
+        }
+        
+        /**
+         * Games read so far
+         */
+        public long getGamesRead() {
+            return games;
+        }
+        
+        /**
+         * The final position of the current game, replayed on a new board
+         */
+        public Board toBoard() {
+            Board board = new Board(size, Arrays.copyOf(symbols, players));
+            for (int i = 0; i < moveCount; i++) {
+                board.makeMove(cells[i], symbols[movers[i]]);
+            }
+            return board;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+        
+        private long getVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                need(1);
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+        
+        private void need(int bytes) throws IOException {
+            if (buffer.remaining() < bytes && !ensure(bytes)) {
+                throw new EOFException();
+            }
+        }
+        
+        /**
+         * Refills the buffer until it holds at least bytes; false if the file ends first
+         */
+        private boolean ensure(int bytes) throws IOException {
+            while (buffer.remaining() < bytes) {
+                if (endOfFile) {
+                    return false;
+                }
+                buffer.compact();
+                endOfFile = channel.read(buffer) < 0;
+                buffer.flip();
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Usage: java MoveLog file - replays a log and prints a summary by board size
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java MoveLog file");
+            return;
+        }
+        
+        long start = System.nanoTime();
+        long moves = 0;
+        int draws = Game.SYMBOLS.length;
+        int unfinished = draws + 1;
+        Map<Integer, long[]> results = new TreeMap<>(); // size -> games won by seat..., draws, unfinished
+        try (Reader reader = read(Paths.get(args[0]))) {
+            while (reader.next()) {
+                int result = reader.getResult();
+                results.computeIfAbsent(reader.getBoardSize(), size -> new long[unfinished + 1])
+                        [result >= 0 ? result : result == DRAW ? draws : unfinished]++;
+                moves += reader.getMoveCount();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%,d games, %,d moves, read in %.2f s (%,.0f games/s)%n",
+                    reader.getGamesRead(), moves, seconds, reader.getGamesRead() / seconds);
+        }
+        
+        for (Map.Entry<Integer, long[]> entry : results.entrySet()) {
+            int size = entry.getKey();
+            long[] counts = entry.getValue();
+            long games = Arrays.stream(counts).sum();
+            StringBuilder line = new StringBuilder(String.format("%dx%d: %,d games -", size, size, games));
+            for (int seat = 0; seat < draws; seat++) {
+                if (counts[seat] > 0) {
+                    line.append(String.format(" seat %d won %.1f%%", seat + 1, 100.0 * counts[seat] / games));
+                }
+            }
+            line.append(String.format(" draw %.1f%%", 100.0 * counts[draws] / games));
+            if (counts[unfinished] > 0) {
+                line.append(String.format(" unfinished %d", counts[unfinished]));
+            }
+            System.out.println(line);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Perfect Bot Strategy - Plays solved 3x3 and 4x4 two-player games from a precomputed database
+ * Design Decision: Databases are memory-mapped when the strategy is created, so startup costs a
+ * file open per size and every move is a binary search - no search at all
+ * Design Decision: Positions the database cannot answer (other sizes, 3+ players, a missing file)
+ * go to a fallback strategy, the hard bot by default
+ */
+class PerfectPlayBotStrategy implements BotStrategy {
+    static final Path DEFAULT_DIRECTORY = Paths.get("perfect-play");
+    
+    private final PerfectPlayDatabase[] databases = new PerfectPlayDatabase[PerfectPlayDatabase.MAX_SIZE + 1];
+    private final BotStrategy fallback;
+    
+    public PerfectPlayBotStrategy() {
+        this(DEFAULT_DIRECTORY, new HardBotStrategy());
+    }
+    
+    /**
+     * Maps every database file found in the directory (written by PerfectPlayDatabase.main)
+     */
+    public PerfectPlayBotStrategy(Path directory, BotStrategy fallback) {
+        this.fallback = fallback;
+        for (int size = 1; size <= PerfectPlayDatabase.MAX_SIZE; size++) {
+            Path file = PerfectPlayDatabase.fileFor(directory, size);
+            if (Files.isRegularFile(file)) {
+                try {
+                    databases[size] = PerfectPlayDatabase.open(file);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot load perfect-play database " + file, e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks whether positions of this board size are answered from the database
+     */
+    boolean covers(int size) {
+        return size < databases.length && databases[size] != null;
+    }
+    
+    @Override
+    public Move getMove(Board board, char symbol) {
+        return getMove(board, symbol, new SearchControl());
+    }
+    
+    @Override
+    public Move getMove(Board board, char symbol, SearchControl control) {
+        int size = board.getSize();
+        if (covers(size)) {
+            // With no registry the asking player is taken to be the opener
+            char first = board.getPlayerCount() > 0 ? board.getPlayerSymbol(0) : symbol;
+            int cell = databases[size].bestMove(board, first, symbol);
+            if (cell != PerfectPlayDatabase.NO_MOVE) {
+                return Move.fromCell(cell, size);
+            }
+        }
+        return fallback.getMove(board, symbol, control);
+    }
+}
\ No newline at end of file
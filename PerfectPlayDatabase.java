@@ -0,0 +1,385 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Solved two-player positions for small boards, read straight from a memory-mapped file
+ * Design Decision: Built offline by main() - every position reachable from the empty board is
+ * solved once, reduced by the 8 board symmetries and written as a sorted key array plus a
+ * parallel payload array. Lookups binary-search the mapped file, so opening it parses nothing
+ * and the table never lives on the heap
+ * Design Decision: A position key is the base-3 number of the cells (0 empty, 1 first player,
+ * 2 second player) in its canonical orientation, which fits an int up to 4x4
+ * Design Decision: Among equally valued moves the solver prefers the one that leaves the opponent
+ * the most losing replies, so a drawn position is still played to trip up a weaker opponent
+ */
+final class PerfectPlayDatabase {
+    static final int MAX_SIZE = 4;
+    static final int NO_MOVE = -1;
+    
+    private static final int MAGIC = 0x54545450; // "TTTP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16; // magic, version, size, count
+    
+    // Scores are from the side to move: WIN_SCORE - plies for a win, plies - WIN_SCORE for a loss
+    private static final int WIN_SCORE = 100;
+    
+    // Payload layout (16 bits): score (signed, 8 bits) | losing moves for the side to move (4) | best move (4)
+    private static final int MOVE_MASK = 0xF;
+    private static final int MAX_LOSING_MOVES = 0xF;
+    
+    private final MappedByteBuffer data;
+    private final int size;
+    private final int count;
+    private final int payloadOffset;
+    private final Symmetries symmetries;
+    
+    private PerfectPlayDatabase(MappedByteBuffer data, int size, int count) {
+        this.data = data;
+        this.size = size;
+        this.count = count;
+        this.payloadOffset = HEADER_BYTES + 4 * count;
+        this.symmetries = new Symmetries(size);
+    }
+    
+    /**
+     * Maps a database file written by main() - O(1), the entries are read on demand
+     */
+    static PerfectPlayDatabase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.limit() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                throw new IOException("Not a perfect-play database: " + file);
+            }
+            int size = data.getInt(8);
+            int count = data.getInt(12);
+            if (size < 1 || size > MAX_SIZE || count < 0 || data.limit() != HEADER_BYTES + 6L * count) {
+                throw new IOException("Corrupt perfect-play database: " + file);
+            }
+            return new PerfectPlayDatabase(data, size, count);
+        }
+    }
+    
+    /**
+     * Where the database for a board size lives inside a directory
+     */
+    static Path fileFor(Path directory, int size) {
+        return directory.resolve(size + "x" + size + ".db");
+    }
+    
+    int getSize() {
+        return size;
+    }
+    
+    /**
+     * Best cell (row * size + col) for the player to move, or NO_MOVE if the position is not in
+     * the database - wrong size, more than two symbols, a finished game or a mover out of turn
+     * first is the symbol that opened the game; any other symbol on the board is the second player
+     * Allocation-free: reads the board's cell masks and binary-searches the mapped keys
+     */
+    int bestMove(Board board, char first, char mover) {
+        if (board.getSize() != size || board.getPlayerCount() > 2) {
+            return NO_MOVE;
+        }
+        
+        int firstMask = (int) board.getCellMask(first);
+        int secondMask = (int) ~board.getEmptyMask() & ((1 << size * size) - 1) & ~firstMask;
+        int firstCount = Integer.bitCount(firstMask);
+        int secondCount = Integer.bitCount(secondMask);
+        
+        // The first player moves whenever the counts are level
+        boolean firstToMove = firstCount == secondCount;
+        if (!firstToMove && firstCount != secondCount + 1) return NO_MOVE;
+        if (firstToMove != (mover == first)) return NO_MOVE;
+        
+        int symmetry = symmetries.canonicalSymmetry(firstMask, secondMask);
+        int key = symmetries.key(symmetry, firstMask, secondMask);
+        int index = find(key);
+        if (index < 0) {
+            return NO_MOVE;
+        }
+        int move = data.getShort(payloadOffset + 2 * index) & MOVE_MASK;
+        return board.transformCell(Board.inverseSymmetry(symmetry), move);
+    }
+    
+    private int find(int key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midKey = data.getInt(HEADER_BYTES + 4 * mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Solves every reachable position of a size and writes the database file
+     */
+    static int generate(int size, Path file) throws IOException {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Perfect-play databases only go up to " + MAX_SIZE + "x" + MAX_SIZE);
+        }
+        Solver solver = new Solver(size);
+        solver.solve(0, 0);
+        long[] entries = solver.entries(); // key << 16 | payload, so sorting orders by key
+        Arrays.sort(entries);
+        
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 6 * entries.length);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(entries.length);
+        for (long entry : entries) {
+            buffer.putInt((int) (entry >>> 16));
+        }
+        for (long entry : entries) {
+            buffer.putShort((short) entry);
+        }
+        buffer.flip();
+        
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return entries.length;
+    }
+    
+    /**
+     * Cell permutations for the 8 board symmetries (same numbering as Board.transformCell)
+     * and the base-3 position keys they produce
+     */
+    private static final class Symmetries {
+        private final int cells;
+        private final int[][] target; // target[s][cell] = where symmetry s moves the cell
+        private final int[] powers; // powers[cell] = 3^cell
+        
+        Symmetries(int size) {
+            this.cells = size * size;
+            this.target = new int[Board.SYMMETRIES][cells];
+            Board board = new Board(size);
+            for (int s = 0; s < Board.SYMMETRIES; s++) {
+                for (int cell = 0; cell < cells; cell++) {
+                    target[s][cell] = board.transformCell(s, cell);
+                }
+            }
+            this.powers = new int[cells];
+            int power = 1;
+            for (int cell = 0; cell < cells; cell++) {
+                powers[cell] = power;
+                power *= 3;
+            }
+        }
+        
+        /**
+         * Key of the position after applying symmetry s
+         */
+        int key(int s, int firstMask, int secondMask) {
+            int[] to = target[s];
+            int key = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                int bit = 1 << cell;
+                if ((firstMask & bit) != 0) {
+                    key += powers[to[cell]];
+                } else if ((secondMask & bit) != 0) {
+                    key += 2 * powers[to[cell]];
+                }
+            }
+            return key;
+        }
+        
+        /**
+         * The symmetry giving the smallest key (lowest index on ties)
+         */
+        int canonicalSymmetry(int firstMask, int secondMask) {
+            int best = 0;
+            int bestKey = key(0, firstMask, secondMask);
+            for (int s = 1; s < Board.SYMMETRIES; s++) {
+                int key = key(s, firstMask, secondMask);
+                if (key < bestKey) {
+                    best = s;
+                    bestKey = key;
+                }
+            }
+            return best;
+        }
+        
+        int transform(int s, int mask) {
+            int[] to = target[s];
+            int result = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                if ((mask & (1 << cell)) != 0) {
+                    result |= 1 << to[cell];
+                }
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Exhaustive negamax over canonical positions, memoized in a primitive open-addressing table
+     * Every position reachable by legal play is solved - not just the ones perfect play reaches -
+     * because the opponent may play anything
+     */
+    private static final class Solver {
+        private final int cells;
+        private final int fullMask;
+        private final int[] lineMasks;
+        private final Symmetries symmetries;
+        
+        // Memo: keys are stored + 1 so that 0 marks a free slot
+        private int[] keys = new int[1 << 12];
+        private short[] payloads = new short[1 << 12];
+        private int stored;
+        
+        Solver(int size) {
+            this.cells = size * size;
+            this.fullMask = (int) ((1L << cells) - 1);
+            this.symmetries = new Symmetries(size);
+            this.lineMasks = new int[2 * size + 2];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    lineMasks[i] |= 1 << (i * size + j); // row i
+                    lineMasks[size + i] |= 1 << (j * size + i); // column i
+                }
+                lineMasks[2 * size] |= 1 << (i * size + i);
+                lineMasks[2 * size + 1] |= 1 << (i * size + size - 1 - i);
+            }
+        }
+        
+        /**
+         * Solves a live position and returns its payload (score, losing moves and best move)
+         */
+        int solve(int firstMask, int secondMask) {
+            int symmetry = symmetries.canonicalSymmetry(firstMask, secondMask);
+            int key = symmetries.key(symmetry, firstMask, secondMask);
+            int slot = slotFor(key);
+            if (keys[slot] != 0) {
+                return payloads[slot];
+            }
+            
+            // Work on the canonical board so the best move is stored in canonical orientation
+            int first = symmetries.transform(symmetry, firstMask);
+            int second = symmetries.transform(symmetry, secondMask);
+            boolean firstToMove = Integer.bitCount(first) == Integer.bitCount(second);
+            int mine = firstToMove ? first : second;
+            int occupied = first | second;
+            
+            int bestScore = Integer.MIN_VALUE;
+            int bestPitfalls = -1; // losing replies the best move leaves the opponent
+            int bestMove = -1;
+            int losingMoves = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                int bit = 1 << cell;
+                if ((occupied & bit) != 0) continue;
+                
+                int score;
+                int pitfalls = 0;
+                if (completesLine(mine | bit)) {
+                    score = WIN_SCORE - 1;
+                } else if ((occupied | bit) == fullMask) {
+                    score = 0;
+                } else {
+                    int reply = firstToMove ? solve(first | bit, second) : solve(first, second | bit);
+                    int replyScore = reply >> 8;
+                    score = replyScore > 0 ? 1 - replyScore : replyScore < 0 ? -replyScore - 1 : 0; // one ply further away
+                    pitfalls = (reply >> 4) & MAX_LOSING_MOVES;
+                }
+                if (score < 0) {
+                    losingMoves++;
+                }
+                if (score > bestScore || (score == bestScore && pitfalls > bestPitfalls)) {
+                    bestScore = score;
+                    bestPitfalls = pitfalls;
+                    bestMove = cell;
+                }
+            }
+            
+            int payload = (short) ((bestScore << 8) | (Math.min(losingMoves, MAX_LOSING_MOVES) << 4) | bestMove);
+            slot = slotFor(key); // the table may have grown while the children were solved
+            keys[slot] = key + 1;
+            payloads[slot] = (short) payload;
+            if (++stored * 2 > keys.length) {
+                grow();
+            }
+            return payload;
+        }
+        
+        private boolean completesLine(int mask) {
+            for (int line : lineMasks) {
+                if ((mask & line) == line) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private int slotFor(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != key + 1) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+        
+        private void grow() {
+            int[] oldKeys = keys;
+            short[] oldPayloads = payloads;
+            keys = new int[oldKeys.length * 2];
+            payloads = new short[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slotFor(oldKeys[i] - 1);
+                    keys[slot] = oldKeys[i];
+                    payloads[slot] = oldPayloads[i];
+                }
+            }
+        }
+        
+        long[] entries() {
+            long[] entries = new long[stored];
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    entries[n++] = ((long) (keys[i] - 1) << 16) | (payloads[i] & 0xFFFF);
+                }
+            }
+            return entries;
+        }
+    }
+    
+    /**
+     * Usage: java PerfectPlayDatabase [directory] [sizes...]
+     * Example: java PerfectPlayDatabase perfect-play 3 4
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Paths.get(args[0]) : PerfectPlayBotStrategy.DEFAULT_DIRECTORY;
+        int[] sizes = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[] {3, 4};
+        
+        for (int size : sizes) {
+            long start = System.nanoTime();
+            Path file = fileFor(directory, size);
+            int positions = generate(size, file);
+            System.out.printf("%dx%d: %d positions -> %s (%.1f s)%n",
+                    size, size, positions, file, (System.nanoTime() - start) / 1e9);
+        }
+    }
+}
\ No newline at end of file
@@ -1,3 +1,5 @@
+import java.util.concurrent.CompletableFuture;
+
 /*
  * Abstract Player class - base class for all player types
  * Design Decision: Using composition pattern with strategy for move generation
@@ -15,11 +17,38 @@ public abstract class Player {
         return symbol;
     }
     
+    /**
+     * Reassigns the symbol - Game hands symbols out by seat before the board is created
+     */
+    void setSymbol(char symbol) {
+        this.symbol = symbol;
+    }
+    
     public String getName() {
         return name;
     }
     
     public abstract Move getNextMove(Board board);
     
+    /**
+     * Asks for the next move without waiting for it; the control lets the caller cut a search short
+     * The default answers on the calling thread, which is right for players that wait for input
+     */
+    public CompletableFuture<Move> requestMove(Board board, SearchControl control) {
+        return CompletableFuture.completedFuture(getNextMove(board));
+    }
+    
     public abstract boolean isHuman();
+    
+    /**
+     * Called before another player moves on this board - bots may think ahead meanwhile
+     */
+    public void opponentToMove(Board board, Player opponent) {
+    }
+    
+    /**
+     * Called once when the game is over
+     */
+    public void gameOver() {
+    }
 }
\ No newline at end of file
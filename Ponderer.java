@@ -0,0 +1,235 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pondering for a HardBotStrategy - searches during other players' turns
+ * Design Decision: While the player before the bot is thinking, a background thread predicts
+ * their reply, then searches the bot's answer to each likely reply with the bot's normal budget,
+ * most likely first. Answers are cached by position hash and every searched subtree stays in
+ * the strategy's transposition table
+ * Design Decision: When the real move arrives, a cached answer is played at once (a ponder hit);
+ * if the thread is busy on exactly that position it is allowed to finish within the caller's
+ * time, passing its best move so far on to the caller's control; otherwise it is cancelled and
+ * the bot searches normally, starting from the warmed table
+ * Design Decision: Only positions where the bot moves next are pondered, so in games with
+ * 3+ players a bot ponders during the turn right before its own
+ */
+class Ponderer {
+    private static final long AWAIT_SLICE_MILLIS = 2; // How often a waiting getMove polls its control
+    
+    private final HardBotStrategy strategy;
+    private char symbol;
+    private final Map<Long, Integer> answers = new ConcurrentHashMap<>(); // position hash -> cell
+    private final Object lock = new Object();
+    private volatile boolean stopRequested;
+    private SearchControl current; // running search, guarded by lock
+    private boolean answering; // whether current answers the position below
+    private long answeringHash;
+    private Thread thread; // pondering thread, guarded by lock
+    private volatile int hits;
+    private volatile int misses;
+    
+    Ponderer(HardBotStrategy strategy) {
+        this.strategy = strategy;
+    }
+    
+    /**
+     * Starts pondering for the bot playing symbol while the opponent considers their move
+     * The board is copied before this returns, so the caller may keep playing on it
+     */
+    void start(Board board, char opponent, char symbol) {
+        stop();
+        answers.clear();
+        this.symbol = symbol;
+        
+        TurnOrder order = TurnOrder.of(board, opponent);
+        if (board.getSize() > HardBotStrategy.MAX_SEARCH_SIZE) {
+            return; // Too big to search, so nothing to ponder
+        }
+        if (board.getEmptyCount() < 2 || order.symbolAt(order.next(order.indexOf(opponent))) != symbol) {
+            return; // No position to answer, or someone else moves between the opponent and the bot
+        }
+        
+        Board position = board.copy();
+        synchronized (lock) {
+            stopRequested = false;
+            thread = new Thread(() -> ponder(position, opponent), "ponder-" + symbol);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+    
+    /**
+     * The bot's move on the real board: a pondered answer if there is one, else a normal search
+     * under the given control
+     */
+    Move getMove(Board board, char symbol, SearchControl control) {
+        long hash = board.getHash();
+        SearchControl matching = null;
+        synchronized (lock) {
+            // Busy on this very position - let that search finish, cancel anything else
+            stopRequested = true;
+            if (current != null && answering && answeringHash == hash) {
+                matching = current;
+            } else if (current != null) {
+                current.cancel();
+            }
+        }
+        Move pondered = matching != null ? awaitAnswer(matching, control) : null;
+        join();
+        
+        Integer cell = answers.get(hash);
+        answers.clear();
+        int size = board.getSize();
+        if (cell != null && symbol == this.symbol && board.isValidMove(cell / size, cell % size)) {
+            hits++;
+            return Move.fromCell(cell, size);
+        }
+        if (pondered != null && symbol == this.symbol && board.isValidMove(pondered.getRow(), pondered.getCol())) {
+            hits++; // Cut short by the caller's clock - the deepest completed answer
+            return pondered;
+        }
+        misses++;
+        return strategy.getMove(board, symbol, control);
+    }
+    
+    /**
+     * Waits for the ponder search answering the real position, until the caller's control says
+     * stop; meanwhile its best move so far is offered to the caller. Returns that move if the
+     * search had to be cancelled, null if it finished (its answer is then cached)
+     */
+    private Move awaitAnswer(SearchControl pondering, SearchControl control) {
+        Thread running;
+        synchronized (lock) {
+            running = thread;
+        }
+        try {
+            while (running != null && running.isAlive() && !control.shouldStop()) {
+                running.join(AWAIT_SLICE_MILLIS);
+                Move best = pondering.getBestSoFar();
+                if (best != null) {
+                    control.offer(best);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (running == null || !running.isAlive()) {
+            return null;
+        }
+        pondering.cancel();
+        return pondering.getBestSoFar();
+    }
+    
+    /**
+     * Cancels the background search and waits for it to end
+     */
+    void stop() {
+        synchronized (lock) {
+            stopRequested = true;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+        join();
+    }
+    
+    int getHits() {
+        return hits;
+    }
+    
+    int getMisses() {
+        return misses;
+    }
+    
+    /**
+     * Waits for the pondering thread outside the lock, since its searches take the lock too,
+     * and clears the field only if no newer thread was started meanwhile
+     */
+    private void join() {
+        Thread running;
+        synchronized (lock) {
+            running = thread;
+        }
+        if (running == null) {
+            return;
+        }
+        try {
+            running.join();
+            synchronized (lock) {
+                if (thread == running) {
+                    thread = null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Runs on the pondering thread: predict the reply, then answer the replies in order
+     */
+    private void ponder(Board position, char opponent) {
+        int size = position.getSize();
+        int cells = size * size;
+        
+        // The prediction is the opponent's own best move by the same search; the rest go
+        // immediate wins, blocks of the bot's threats, then from the center outwards
+        Move predicted = search(position, opponent, false, 0);
+        int first = predicted != null ? predicted.toCell(size) : -1;
+        int win = position.findWinningCell(opponent);
+        
+        // Packed sort keys: band, then distance from the center, then the cell itself
+        long[] replies = new long[position.getEmptyCount()];
+        for (int i = 0; i < replies.length; i++) {
+            int cell = position.getEmptyCell(i);
+            int row = cell / size;
+            int col = cell % size;
+            int band = cell == first ? 0 : cell == win ? 1 : position.wouldComplete(row, col, symbol) ? 2 : 3;
+            int distance = Math.abs(2 * row - size + 1) + Math.abs(2 * col - size + 1);
+            replies[i] = ((long) band * 2 * size + distance) * cells + cell;
+        }
+        Arrays.sort(replies);
+        
+        for (long key : replies) {
+            int cell = (int) (key % cells);
+            if (stopRequested) {
+                break;
+            }
+            if (position.makeMove(cell, opponent) || position.isFull()) {
+                position.undoMove(cell);
+                continue; // The game would be over - nothing to answer
+            }
+            long hash = position.getHash();
+            Move answer = search(position, symbol, true, hash);
+            if (answer != null) {
+                answers.put(hash, answer.toCell(size));
+            }
+            position.undoMove(cell);
+        }
+    }
+    
+    /**
+     * One pondering search, registered so that getMove and stop can cancel it
+     * Returns null if it was cancelled, or if a stop came before it started
+     */
+    private Move search(Board position, char mover, boolean answer, long hash) {
+        SearchControl control = new SearchControl();
+        synchronized (lock) {
+            if (stopRequested) {
+                return null;
+            }
+            current = control;
+            answering = answer;
+            answeringHash = hash;
+        }
+        try {
+            return strategy.ponder(position, mover, control);
+        } finally {
+            synchronized (lock) {
+                current = null;
+            }
+        }
+    }
+}
\ No newline at end of file
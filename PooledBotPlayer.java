@@ -0,0 +1,51 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/*
+ * PooledBotPlayer class - a bot player for hosted games
+ * Design Decision: The search runs on the server's bounded CPU pool while the game's own thread
+ * just waits, so heavy searches queue up there instead of crowding out connection handling
+ * Design Decision: The search runs under the caller's SearchControl - interrupting a pool thread
+ * does not stop a strategy, cancelling its control does
+ */
+public class PooledBotPlayer extends Player {
+    private final BotStrategy strategy;
+    private final ExecutorService pool;
+    private final String difficulty;
+    
+    public PooledBotPlayer(String name, char symbol, String difficulty, BotStrategy strategy, ExecutorService pool) {
+        super(name + " (Bot-" + difficulty + ")", symbol);
+        this.strategy = strategy;
+        this.pool = pool;
+        this.difficulty = difficulty;
+    }
+    
+    @Override
+    public Move getNextMove(Board board) {
+        SearchControl control = new SearchControl();
+        try {
+            return requestMove(board, control).get();
+        } catch (InterruptedException e) {
+            control.cancel();
+            Thread.currentThread().interrupt(); // Game aborted - the caller sees the flag
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bot strategy failed", e.getCause());
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Move> requestMove(Board board, SearchControl control) {
+        return CompletableFuture.supplyAsync(() -> strategy.getMove(board, symbol, control), pool);
+    }
+    
+    @Override
+    public boolean isHuman() {
+        return false;
+    }
+    
+    public String getDifficulty() {
+        return difficulty;
+    }
+}
\ No newline at end of file
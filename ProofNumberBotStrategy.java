@@ -0,0 +1,70 @@
+/**
+ * Solver Bot Strategy - Plays proven wins at once, otherwise searches like the hard bot
+ * Design Decision: Each move first runs a proof-number search for a forced win under a node
+ * budget and half the config's time budget; a proof is played without further search, and an
+ * unproven or lost position goes to the fallback with the time that is left, so a timed bot
+ * keeps to its budget like the hard bot does
+ * Design Decision: The solver's table is kept across moves, so once a win is proven the
+ * following moves of the game re-prove it from the table in a few nodes
+ */
+class ProofNumberBotStrategy implements BotStrategy {
+    /**
+     * Solver nodes per move - the cap for untimed configs; a node scans every empty cell, so on
+     * a 5x5 board this is about a second of work, and far more on big boards
+     */
+    static final long DEFAULT_NODE_BUDGET = 50_000;
+    
+    private final ProofNumberSearch solver;
+    private final BotStrategy fallback;
+    private final long timeBudgetMillis; // per move, 0 for none
+    
+    public ProofNumberBotStrategy() {
+        this(new SearchConfig());
+    }
+    
+    /**
+     * Solver and fallback both sized by the config - its table size is the solver's entries too,
+     * so hosts that shrink bot tables (GameServer) shrink the solver with them
+     */
+    public ProofNumberBotStrategy(SearchConfig config) {
+        this(new ProofNumberSearch(config.getTableSize(), DEFAULT_NODE_BUDGET), new HardBotStrategy(config),
+                config.getTimeBudgetMillis());
+    }
+    
+    public ProofNumberBotStrategy(ProofNumberSearch solver, BotStrategy fallback) {
+        this(solver, fallback, 0);
+    }
+    
+    /**
+     * @param timeBudgetMillis time per move shared by solver and fallback, 0 for no limit
+     */
+    public ProofNumberBotStrategy(ProofNumberSearch solver, BotStrategy fallback, long timeBudgetMillis) {
+        this.solver = solver;
+        this.fallback = fallback;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+    
+    @Override
+    public Move getMove(Board board, char symbol) {
+        return getMove(board, symbol, new SearchControl());
+    }
+    
+    @Override
+    public Move getMove(Board board, char symbol, SearchControl control) {
+        long start = System.nanoTime();
+        // The solver handles two-player games only, on boards the hard bot would search
+        if (board.getPlayerCount() <= 2 && board.getEmptyCount() > 0 && board.getSize() <= HardBotStrategy.MAX_SEARCH_SIZE) {
+            SearchControl solving = timeBudgetMillis > 0 ? control.limitedTo(Math.max(1, timeBudgetMillis / 2)) : control;
+            ProofNumberSearch.Solution solution = solver.proveWin(board, symbol, solving);
+            if (solution.getOutcome() == ProofNumberSearch.Outcome.WIN) {
+                control.offer(solution.getMove());
+                return solution.getMove();
+            }
+        }
+        if (timeBudgetMillis == 0) {
+            return fallback.getMove(board, symbol, control);
+        }
+        long left = timeBudgetMillis - (System.nanoTime() - start) / 1_000_000L;
+        return fallback.getMove(board, symbol, control.limitedTo(Math.max(1, left)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,508 @@
+import java.util.Arrays;
+
+/**
+ * Proof-number solver - proves the game-theoretic value of a two-player position
+ * Design Decision: Depth-first proof-number search (df-pn) in negamax form: every node stores
+ * phi/delta for the player to move (the proof numbers of "the mover reaches the goal" and of
+ * its refutation), and a child is expanded only while its numbers stay under the thresholds its
+ * parent passes down - memory is the table, never an explicit tree
+ * Design Decision: A search proves one goal, "attacker wins". The value of a position takes at
+ * most two: a win for the mover, then a win for the opponent - when both fail it is a draw
+ * Design Decision: The table is fixed-size, four entries per bucket, and a store evicts the entry
+ * that took less work to compute, so solving runs in constant memory. Positions are keyed by
+ * the canonical (symmetry-reduced) hash, and symmetric moves are expanded once
+ * Design Decision: The board's line counters settle nodes without expanding them: a mover with a
+ * winning cell wins, a mover facing two winning cells loses, an attacker with no open line left
+ * cannot win, and a mover facing one winning cell must block it, which is then its only move
+ */
+public class ProofNumberSearch {
+    /**
+     * Value of a position for the player to move
+     */
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS,
+        NO_WIN,   // draw or loss - proveWin does not tell them apart
+        UNKNOWN   // stopped before a proof
+    }
+    
+    public static final int DEFAULT_TABLE_SIZE = 1 << 20;
+    public static final long UNLIMITED_NODES = Long.MAX_VALUE;
+    
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int TIME_CHECK_WORK = 4096; // empty cells expanded between clock reads, roughly
+    private static final int EPSILON_SHIFT = 2; // child thresholds get 1/4 of slack (df-pn 1 + epsilon)
+    
+    // Results of settle
+    private static final int OPEN = 0;
+    private static final int MOVER_WINS = 1;
+    private static final int MOVER_LOSES = 2;
+    
+    private final Table table;
+    private final long maxNodes;
+    
+    // State of the running solve
+    private Board board;
+    private char attacker;
+    private long attackerKey;
+    private SearchControl control;
+    private long nodes;
+    private int timeCheckMask; // clock read every timeCheckMask + 1 nodes
+    private boolean aborted;
+    private int[][] moves = new int[0][];   // moves[ply] = the moves of the node at that ply
+    private long[][] childKeys = new long[0][];
+    private int[][] childPhis = new int[0][];   // phi/delta of each child, for the player to move there
+    private int[][] childDeltas = new int[0][];
+    private int[] childCounts = new int[0];
+    private int resultPhi; // phi/delta of the node mid just finished
+    private int resultDelta;
+    
+    public ProofNumberSearch() {
+        this(DEFAULT_TABLE_SIZE, UNLIMITED_NODES);
+    }
+    
+    /**
+     * @param tableSize table entries (rounded up to a power of two) - all the memory solving uses
+     * @param maxNodes node budget per solve, UNLIMITED_NODES for none
+     */
+    public ProofNumberSearch(int tableSize, long maxNodes) {
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("Node budget must be positive");
+        }
+        this.table = new Table(tableSize);
+        this.maxNodes = maxNodes;
+    }
+    
+    /**
+     * Proves the value of the position for symbol, the player to move: WIN, DRAW or LOSS, or
+     * UNKNOWN if the control or the node budget stopped it first
+     * A WIN comes with a winning move and a DRAW with a move that holds the draw
+     */
+    public synchronized Solution solve(Board board, char symbol, SearchControl control) {
+        long start = System.nanoTime();
+        char opponent = opponentOf(board, symbol);
+        begin(board, control);
+        
+        int cell = prove(symbol, symbol);
+        if (aborted) {
+            return finish(Outcome.UNKNOWN, -1, start);
+        }
+        if (cell >= 0) {
+            return finish(Outcome.WIN, cell, start);
+        }
+        cell = prove(opponent, symbol);
+        if (aborted) {
+            return finish(Outcome.UNKNOWN, -1, start);
+        }
+        // Refuting the opponent's win from the mover's side is holding the draw
+        return cell >= 0 ? finish(Outcome.DRAW, cell, start) : finish(Outcome.LOSS, -1, start);
+    }
+    
+    /**
+     * Only the first half of solve: WIN with a winning move, NO_WIN, or UNKNOWN
+     */
+    public synchronized Solution proveWin(Board board, char symbol, SearchControl control) {
+        long start = System.nanoTime();
+        opponentOf(board, symbol);
+        begin(board, control);
+        
+        int cell = prove(symbol, symbol);
+        if (aborted) {
+            return finish(Outcome.UNKNOWN, -1, start);
+        }
+        return cell >= 0 ? finish(Outcome.WIN, cell, start) : finish(Outcome.NO_WIN, -1, start);
+    }
+    
+    /**
+     * Forgets every proof, e.g. before timing a cold solve
+     */
+    public synchronized void clear() {
+        table.clear();
+    }
+    
+    private char opponentOf(Board board, char symbol) {
+        if (board.getPlayerCount() > 2) {
+            throw new IllegalArgumentException("Proof-number search needs a two-player game");
+        }
+        if (board.isFull() || board.checkWin(symbol) || board.checkWin(opponentOf(symbol, board))) {
+            throw new IllegalArgumentException("The game is already over");
+        }
+        return opponentOf(symbol, board);
+    }
+    
+    private static char opponentOf(char symbol, Board board) {
+        TurnOrder order = TurnOrder.of(board, symbol);
+        return order.symbolAt(order.next(order.indexOf(symbol)));
+    }
+    
+    private void begin(Board board, SearchControl control) {
+        this.board = board.copy();
+        this.control = control;
+        this.nodes = 0;
+        this.aborted = false;
+        // Every node scans the empty cells, so bigger boards read the clock more often, down to every node
+        this.timeCheckMask = Integer.highestOneBit(Math.max(1, Math.min(1024,
+                TIME_CHECK_WORK / Math.max(1, board.getEmptyCount())))) - 1;
+        int cells = board.getEmptyCount() + 1;
+        if (moves.length < cells) {
+            moves = new int[cells][];
+            childKeys = new long[cells][];
+            childPhis = new int[cells][];
+            childDeltas = new int[cells][];
+            childCounts = new int[cells];
+        }
+    }
+    
+    private Solution finish(Outcome outcome, int cell, long start) {
+        Move move = cell >= 0 ? Move.fromCell(cell, board.getSize()) : null;
+        Solution solution = new Solution(outcome, move, nodes, System.nanoTime() - start);
+        board = null; // Do not keep the caller's position alive
+        control = null;
+        return solution;
+    }
+    
+    /**
+     * Proves or refutes "attacker wins" with mover to play
+     * Returns a move that reaches the mover's goal (attacker: win, defender: refute), or -1 if
+     * the mover cannot reach it or the search was stopped
+     */
+    private int prove(char attacker, char mover) {
+        this.attacker = attacker;
+        this.attackerKey = Board.zobristKey(-3, attacker);
+        int settled = settle(mover);
+        if (settled != OPEN) {
+            // A winning cell, or a defender facing no open line, for whom any move holds
+            int win = board.findWinningCell(mover);
+            return settled == MOVER_LOSES ? -1 : win >= 0 ? win : board.getEmptyCell(0);
+        }
+        
+        mid(0, mover, keyOf(mover), INF, INF);
+        if (aborted || resultPhi != 0) {
+            return -1;
+        }
+        // The root's child list still holds the final numbers - play a child lost for its mover
+        for (int i = 0; i < childCounts[0]; i++) {
+            if (childDeltas[0][i] == 0) {
+                return moves[0][i];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Multiple iterative deepening: searches the node until phi >= thPhi or delta >= thDelta,
+     * always descending into the child with the smallest delta. Leaves the node's numbers in
+     * resultPhi/resultDelta and returns the work done (nodes)
+     * Design Decision: The numbers of the children of every node on the current path live in
+     * per-ply arrays, read from the table once at expansion - an eviction while a subtree is
+     * searched can never send its parent back to numbers it has already outgrown
+     */
+    private long mid(int ply, char mover, long key, int thPhi, int thDelta) {
+        if (++nodes > maxNodes || ((nodes & timeCheckMask) == 0 && control.shouldStop())) {
+            aborted = true;
+            return 1;
+        }
+        
+        char next = opponentOf(mover, board);
+        int count = expand(ply, mover, next);
+        int[] cells = moves[ply];
+        long[] keys = childKeys[ply];
+        int[] phis = childPhis[ply];
+        int[] deltas = childDeltas[ply];
+        long work = 1;
+        int phi;
+        int delta;
+        
+        while (true) {
+            // phi = smallest child delta, delta = sum of child phis
+            int best = 0;
+            int bestDelta = INF;
+            int secondDelta = INF;
+            long sumPhi = 0;
+            for (int i = 0; i < count; i++) {
+                sumPhi = phis[i] == INF || sumPhi == INF ? INF : Math.min(sumPhi + phis[i], INF - 1);
+                if (deltas[i] < bestDelta) {
+                    secondDelta = bestDelta;
+                    bestDelta = deltas[i];
+                    best = i;
+                } else if (deltas[i] < secondDelta) {
+                    secondDelta = deltas[i];
+                }
+            }
+            phi = bestDelta;
+            delta = (int) sumPhi;
+            if (phi >= thPhi || delta >= thDelta || aborted) {
+                break;
+            }
+            
+            int childThPhi = thDelta == INF ? INF : (int) Math.min(INF - 1, (long) thDelta - delta + phis[best]);
+            // 1 + epsilon: stay with the child a little past the runner-up, so the search
+            // switches between siblings less often
+            int childThDelta = Math.min(thPhi, secondDelta == INF ? INF
+                    : (int) Math.min(INF - 1, (long) secondDelta + 1 + (secondDelta >> EPSILON_SHIFT)));
+            board.makeMove(cells[best], mover);
+            work += mid(ply + 1, next, keys[best], childThPhi, childThDelta);
+            board.undoMove(cells[best]);
+            if (!aborted) {
+                phis[best] = resultPhi;
+                deltas[best] = resultDelta;
+            }
+        }
+        
+        if (!aborted) {
+            table.store(key, phi, delta, work);
+        }
+        resultPhi = phi;
+        resultDelta = delta;
+        return work;
+    }
+    
+    /**
+     * Decides a node without expanding it where the threat index allows
+     */
+    private int settle(char mover) {
+        if (board.isFull()) {
+            return mover == attacker ? MOVER_LOSES : MOVER_WINS; // A draw is a win for the defender
+        }
+        if (board.findWinningCell(mover) >= 0) {
+            return MOVER_WINS;
+        }
+        if (board.getOpenLineCount(attacker) == 0) {
+            return mover == attacker ? MOVER_LOSES : MOVER_WINS; // Every line is blocked - no win left
+        }
+        char next = opponentOf(mover, board);
+        int threats = board.getThreatCount(next);
+        if (threats > 1) {
+            int first = board.getThreatCell(next, 0);
+            for (int i = 1; i < threats; i++) {
+                if (board.getThreatCell(next, i) != first) {
+                    return MOVER_LOSES; // Two cells to block, one move
+                }
+            }
+        }
+        return OPEN;
+    }
+    
+    /**
+     * Fills the ply's child arrays for the mover and returns how many children there are: the
+     * forced block if the opponent threatens to win, else every empty cell up to symmetry
+     * Children are numbered from settle where it decides them - those are never stored, so they
+     * cannot crowd out entries that took real work - and from the table otherwise
+     */
+    private int expand(int ply, char mover, char next) {
+        int empty = board.getEmptyCount();
+        if (moves[ply] == null || moves[ply].length < empty) {
+            moves[ply] = new int[empty];
+            childKeys[ply] = new long[empty];
+            childPhis[ply] = new int[empty];
+            childDeltas[ply] = new int[empty];
+        }
+        int[] cells = moves[ply];
+        int count = 0;
+        
+        int block = board.findWinningCell(next);
+        if (block >= 0) {
+            cells[count++] = block;
+        } else {
+            for (int i = 0; i < empty; i++) {
+                int cell = board.getEmptyCell(i);
+                if (!hasSmallerTwin(cell)) {
+                    cells[count++] = cell;
+                }
+            }
+        }
+        
+        for (int i = 0; i < count; i++) {
+            if ((i & (TIME_CHECK_WORK - 1)) == TIME_CHECK_WORK - 1 && control.shouldStop()) {
+                aborted = true; // Big boards: a single expansion can outlast the budget
+                count = i;
+                break;
+            }
+            board.makeMove(cells[i], mover);
+            long key = keyOf(next);
+            int settled = settle(next);
+            board.undoMove(cells[i]);
+            
+            childKeys[ply][i] = key;
+            if (settled != OPEN) {
+                childPhis[ply][i] = settled == MOVER_WINS ? 0 : INF;
+                childDeltas[ply][i] = settled == MOVER_WINS ? INF : 0;
+            } else {
+                int entry = table.lookup(key);
+                childPhis[ply][i] = entry < 0 ? 1 : table.phi(entry);
+                childDeltas[ply][i] = entry < 0 ? 1 : table.delta(entry);
+            }
+        }
+        childCounts[ply] = count;
+        return count;
+    }
+    
+    /**
+     * True if a symmetry of the current position maps the cell onto a smaller one, whose move
+     * leads to the same position up to symmetry
+     */
+    private boolean hasSmallerTwin(int cell) {
+        for (int s = 1; s < Board.SYMMETRIES; s++) {
+            if (board.isSymmetricUnder(s) && board.transformCell(s, cell) < cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Table key of the current position with mover to play, under the running goal
+     */
+    private long keyOf(char mover) {
+        return board.getCanonicalHash() ^ Board.zobristKey(-2, mover) ^ attackerKey;
+    }
+    
+    /**
+     * Result of one solve or proveWin
+     */
+    public static final class Solution {
+        private final Outcome outcome;
+        private final Move move;
+        private final long nodes;
+        private final long elapsedNanos;
+        
+        Solution(Outcome outcome, Move move, long nodes, long elapsedNanos) {
+            this.outcome = outcome;
+            this.move = move;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        public Outcome getOutcome() {
+            return outcome;
+        }
+        
+        /**
+         * The winning move for a WIN, a drawing move for a DRAW, otherwise null
+         */
+        public Move getMove() {
+            return move;
+        }
+        
+        public long getNodes() {
+            return nodes;
+        }
+        
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s%s, %d nodes, %.1f ms", outcome, move != null ? " with " + move : "",
+                    nodes, elapsedNanos / 1e6);
+        }
+    }
+    
+    /**
+     * Fixed-size proof table - four entries per bucket, the one with the least work is replaced
+     */
+    private static final class Table {
+        private static final int WAYS = 4;
+        
+        private final long[] keys;
+        private final int[] phis;
+        private final int[] deltas;
+        private final int[] works; // 0 marks a free entry
+        private final int mask;
+        
+        Table(int entries) {
+            if (entries < WAYS) {
+                throw new IllegalArgumentException("Proof table needs at least " + WAYS + " entries");
+            }
+            int capacity = Integer.highestOneBit(entries);
+            if (capacity < entries) {
+                capacity <<= 1;
+            }
+            this.keys = new long[capacity];
+            this.phis = new int[capacity];
+            this.deltas = new int[capacity];
+            this.works = new int[capacity];
+            this.mask = capacity - 1;
+        }
+        
+        /**
+         * Index of the key's entry, or -1
+         */
+        int lookup(long key) {
+            int bucket = (int) key & mask & ~(WAYS - 1);
+            for (int i = bucket; i < bucket + WAYS; i++) {
+                if (keys[i] == key && works[i] != 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        int phi(int entry) {
+            return phis[entry];
+        }
+        
+        int delta(int entry) {
+            return deltas[entry];
+        }
+        
+        void store(long key, int phi, int delta, long work) {
+            int bucket = (int) key & mask & ~(WAYS - 1);
+            int slot = bucket;
+            for (int i = bucket; i < bucket + WAYS; i++) {
+                if (keys[i] == key && works[i] != 0) {
+                    slot = i;
+                    break;
+                }
+                if (works[i] < works[slot]) {
+                    slot = i;
+                }
+            }
+            keys[slot] = key;
+            phis[slot] = phi;
+            deltas[slot] = delta;
+            works[slot] = (int) Math.min(work, Integer.MAX_VALUE);
+        }
+        
+        void clear() {
+            Arrays.fill(works, 0);
+        }
+    }
+    
+    /**
+     * Usage: java ProofNumberSearch size [cell ...] [--nodes=N] [--table=N]
+     * The cells (row * size + col) are played in turn from X, then the position is solved for
+     * the player to move. Example: java ProofNumberSearch 4 5
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ProofNumberSearch size [cell ...] [--nodes=N] [--table=N]");
+            return;
+        }
+        int size = Integer.parseInt(args[0]);
+        long maxNodes = UNLIMITED_NODES;
+        int tableSize = DEFAULT_TABLE_SIZE;
+        Board board = new Board(size, 'X', 'O');
+        char mover = 'X';
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--nodes=")) {
+                maxNodes = Long.parseLong(args[i].substring("--nodes=".length()));
+            } else if (args[i].startsWith("--table=")) {
+                tableSize = Integer.parseInt(args[i].substring("--table=".length()));
+            } else {
+                int cell = Integer.parseInt(args[i]);
+                if (cell < 0 || cell >= size * size || !board.isValidMove(cell / size, cell % size)) {
+                    throw new IllegalArgumentException("Illegal move " + cell);
+                }
+                board.makeMove(cell, mover);
+                mover = mover == 'X' ? 'O' : 'X';
+            }
+        }
+        
+        board.printBoard();
+        Solution solution = new ProofNumberSearch(tableSize, maxNodes).solve(board, mover, new SearchControl());
+        System.out.println(mover + " to move: " + solution);
+    }
+}
\ No newline at end of file
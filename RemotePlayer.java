@@ -0,0 +1,47 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * RemotePlayer class - a human player whose moves arrive from a transport instead of a console
+ * Design Decision: getNextMove parks on a queue, which costs nothing on a virtual thread, so one
+ * server thread per game can wait for input from thousands of players at once
+ */
+public class RemotePlayer extends Player {
+    private final BlockingQueue<Move> moves = new ArrayBlockingQueue<>(1);
+    private final AtomicBoolean awaitingMove = new AtomicBoolean();
+    
+    public RemotePlayer(String name, char symbol) {
+        super(name, symbol);
+    }
+    
+    /**
+     * Opens the player's turn - only one move is accepted per opened turn
+     */
+    void expectMove() {
+        moves.clear();
+        awaitingMove.set(true);
+    }
+    
+    /**
+     * Hands in a move from the transport; false if it is not this player's turn
+     */
+    public boolean submit(Move move) {
+        return awaitingMove.compareAndSet(true, false) && moves.offer(move);
+    }
+    
+    @Override
+    public Move getNextMove(Board board) {
+        try {
+            return moves.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Game aborted - the session sees the flag
+            return null;
+        }
+    }
+    
+    @Override
+    public boolean isHuman() {
+        return true;
+    }
+}
\ No newline at end of file
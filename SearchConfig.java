@@ -0,0 +1,145 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Search settings for the searching bot strategies (HardBotStrategy, MonteCarloBotStrategy)
+ * Design Decision: One settings object instead of telescoping constructors as search options grow
+ * Design Decision: Multi-threaded searches run on one shared pool per thread count, so strategies
+ * need no closing and a host creating bots per game does not leak a pool per bot
+ */
+public class SearchConfig {
+    /**
+     * How the hard bot models opponents when 3 or more players are in the game
+     * PARANOID assumes every opponent plays against the bot (alpha-beta still applies);
+     * MAX_N assumes every player maximizes their own result (shallow pruning only)
+     */
+    public enum MultiplayerMode {
+        PARANOID,
+        MAX_N
+    }
+    
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+    public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+    
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>(); // daemon workers
+    
+    private int tableSize = TranspositionTable.DEFAULT_SIZE;
+    private int maxDepth = UNLIMITED_DEPTH;
+    private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+    private int threads = 1;
+    private int iterations = 0;
+    private MultiplayerMode multiplayerMode = MultiplayerMode.PARANOID;
+    
+    /**
+     * Fixed-depth search with no time budget (the classic depth-capped minimax)
+     */
+    public static SearchConfig fixedDepth(int depth) {
+        return new SearchConfig().maxDepth(depth).timeBudgetMillis(0);
+    }
+    
+    /**
+     * Anytime search - deepens until the per-move budget runs out
+     */
+    public static SearchConfig timed(long millis) {
+        return new SearchConfig().timeBudgetMillis(millis);
+    }
+    
+    /**
+     * Number of transposition table entries (rounded up to a power of two)
+     */
+    public SearchConfig tableSize(int entries) {
+        if (entries < 1) {
+            throw new IllegalArgumentException("Table size must be positive");
+        }
+        this.tableSize = entries;
+        return this;
+    }
+    
+    /**
+     * Deepest iteration to search, in plies
+     */
+    public SearchConfig maxDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1");
+        }
+        this.maxDepth = depth;
+        return this;
+    }
+    
+    /**
+     * Per-move time budget in milliseconds, 0 for no time limit
+     */
+    public SearchConfig timeBudgetMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative");
+        }
+        this.timeBudgetMillis = millis;
+        return this;
+    }
+    
+    /**
+     * Worker threads for the search, 1 searches on the calling thread only
+     * Cap this per game when many games share a host
+     */
+    public SearchConfig threads(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Need at least 1 search thread");
+        }
+        this.threads = count;
+        return this;
+    }
+    
+    /**
+     * Fixed number of Monte Carlo iterations per move, 0 to run until the time budget instead
+     */
+    public SearchConfig iterations(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Iterations cannot be negative");
+        }
+        this.iterations = count;
+        return this;
+    }
+    
+    /**
+     * Opponent model for 3+ player games, two-player games always use plain minimax
+     */
+    public SearchConfig multiplayerMode(MultiplayerMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Multiplayer mode cannot be null");
+        }
+        this.multiplayerMode = mode;
+        return this;
+    }
+    
+    public int getTableSize() {
+        return tableSize;
+    }
+    
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    public int getIterations() {
+        return iterations;
+    }
+    
+    public MultiplayerMode getMultiplayerMode() {
+        return multiplayerMode;
+    }
+    
+    /**
+     * Shared pool with getThreads() workers, or null when the search runs on the calling thread only
+     */
+    ForkJoinPool getPool() {
+        return threads > 1 ? POOLS.computeIfAbsent(threads, ForkJoinPool::new) : null;
+    }
+}
\ No newline at end of file
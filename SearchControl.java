@@ -0,0 +1,73 @@
+/**
+ * Handle on one running move search - shared by the caller and the strategy
+ * Design Decision: Cancellation is cooperative: searching strategies poll shouldStop where they
+ * already read the clock, and report the best move of every finished iteration through offer,
+ * so a caller whose time is up can cancel and still play a sensible move at once
+ * Design Decision: A strategy that splits its time between stages gives each stage a child
+ * control from limitedTo - the child also stops when its parent does, and passes offers up
+ */
+public class SearchControl {
+    private final long deadline; // System.nanoTime() value, Long.MAX_VALUE for none
+    private final SearchControl parent; // null for a top-level control
+    private volatile boolean cancelled;
+    private volatile Move bestSoFar;
+    
+    /**
+     * No time limit - the search runs until it finishes or is cancelled
+     */
+    public SearchControl() {
+        this(0);
+    }
+    
+    /**
+     * @param timeLimitMillis time the search may take from now, 0 for no limit
+     */
+    public SearchControl(long timeLimitMillis) {
+        this(null, timeLimitMillis);
+    }
+    
+    private SearchControl(SearchControl parent, long timeLimitMillis) {
+        this.parent = parent;
+        this.deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000L : Long.MAX_VALUE;
+    }
+    
+    /**
+     * Child control that stops after at most timeLimitMillis (0 for no limit of its own), or as
+     * soon as this one stops; moves offered to it are offered to this one too
+     */
+    public SearchControl limitedTo(long timeLimitMillis) {
+        return new SearchControl(this, timeLimitMillis);
+    }
+    
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+    
+    /**
+     * True once cancelled or past the time limit - polled by the strategies
+     */
+    public boolean shouldStop() {
+        return cancelled || System.nanoTime() >= deadline || (parent != null && parent.shouldStop());
+    }
+    
+    /**
+     * Called by a strategy whenever it has a new best move
+     */
+    public void offer(Move move) {
+        bestSoFar = move;
+        if (parent != null) {
+            parent.offer(move);
+        }
+    }
+    
+    /**
+     * Latest move offered by the strategy, or null if it has not got that far
+     */
+    public Move getBestSoFar() {
+        return bestSoFar;
+    }
+}
\ No newline at end of file
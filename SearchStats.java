@@ -0,0 +1,79 @@
+/**
+ * Counters from one hard bot search, for tuning and diagnostics
+ * Design Decision: An immutable snapshot taken when getMove returns - the search threads keep
+ * plain per-thread counters and nothing is shared while they run
+ */
+public final class SearchStats {
+    private final int depth;
+    private final long nodes;
+    private final long cutoffs;
+    private final long firstMoveCutoffs;
+    private final long tableProbes;
+    private final long tableHits;
+    private final long elapsedNanos;
+    
+    SearchStats(int depth, long nodes, long cutoffs, long firstMoveCutoffs, long tableProbes, long tableHits,
+            long elapsedNanos) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.cutoffs = cutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Deepest fully completed iteration, in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+    
+    /**
+     * Nodes visited below the root, horizon nodes included, over all iterations and threads
+     */
+    public long getNodes() {
+        return nodes;
+    }
+    
+    /**
+     * Nodes whose move loop stopped early (beta cutoff or max-n shallow prune)
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+    
+    /**
+     * Cutoffs caused by the first move tried - the share of these measures move ordering quality
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+    
+    /**
+     * Transposition table lookups, and how many of them found an entry for the position
+     */
+    public long getTableProbes() {
+        return tableProbes;
+    }
+    
+    public long getTableHits() {
+        return tableHits;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    public double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("depth %d, %d nodes, %d cutoffs (%.1f%% on first move), %.1f%% table hits, %.1f ms",
+                depth, nodes, cutoffs, 100 * getFirstMoveCutoffRate(),
+                tableProbes == 0 ? 0 : 100.0 * tableHits / tableProbes, elapsedNanos / 1e6);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,307 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless bot-vs-bot simulator for strategy evaluation
+ * Design Decision: Bypasses Game/BotPlayer entirely - no pacing delay, no console output, just
+ * Board + BotStrategy in a tight loop on every core
+ * Design Decision: Game g is played by worker (g % threads), and each worker seeds its bots from
+ * (seed, worker index), so a run is reproducible for a given seed and thread count
+ * Design Decision: Searching bots get a fixed depth and a fixed iteration count instead of the
+ * default time budget, so how far they search never depends on the machine or its load
+ * Design Decision: With a MoveLog set, each worker records its games through its own Recorder,
+ * so logging adds a few buffer writes per move and no locking in the game loop
+ */
+public class Simulation {
+    private static final int WIN = 0;
+    private static final int DRAW = 1;
+    private static final int LOSS = 2;
+    
+    private static final int SEARCH_DEPTH = 4; // hard, and the fallback of perfect and solver
+    private static final int MCTS_ITERATIONS = 2000;
+    
+    private final int[] boardSizes;
+    private final String[] lineup; // bot difficulty per seat
+    private final boolean rotateSeats;
+    private final int threads;
+    private final long seed;
+    private MoveLog moveLog; // null when games are not recorded
+    
+    /**
+     * @param boardSizes  board sizes to cycle through, game by game
+     * @param lineup      bot difficulty for each seat (2 to 10 seats)
+     * @param rotateSeats shift the lineup by one seat every round so every bot plays every seat
+     * @param threads     worker threads
+     * @param seed        base seed for all bot random sources
+     */
+    public Simulation(int[] boardSizes, String[] lineup, boolean rotateSeats, int threads, long seed) {
+        if (boardSizes.length == 0) {
+            throw new IllegalArgumentException("Need at least one board size");
+        }
+        for (int size : boardSizes) {
+            if (size < 3) {
+                throw new IllegalArgumentException("Board size must be at least 3x3!");
+            }
+        }
+        if (lineup.length < 2 || lineup.length > Game.SYMBOLS.length) {
+            throw new IllegalArgumentException("Need between 2 and " + Game.SYMBOLS.length + " bots");
+        }
+        for (String difficulty : lineup) {
+            if (!BotPlayer.DIFFICULTIES.contains(difficulty)) {
+                throw new IllegalArgumentException("Unknown difficulty '" + difficulty + "'");
+            }
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least 1 thread");
+        }
+        
+        this.boardSizes = boardSizes.clone();
+        this.lineup = lineup.clone();
+        this.rotateSeats = rotateSeats;
+        this.threads = threads;
+        this.seed = seed;
+    }
+    
+    /**
+     * Records every game played from now on into the log (null to stop recording)
+     */
+    public void setMoveLog(MoveLog moveLog) {
+        this.moveLog = moveLog;
+    }
+    
+    /**
+     * Plays the given number of games and returns the aggregated statistics
+     */
+    public Result run(long games) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long[][][][] totals = newCounters();
+        
+        try {
+            List<Future<long[][][][]>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int worker = t;
+                workers.add(executor.submit(() -> playShare(worker, games)));
+            }
+            for (Future<long[][][][]> worker : workers) {
+                merge(totals, worker.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return new Result(games, System.nanoTime() - start, totals);
+    }
+    
+    /**
+     * Plays every game assigned to one worker, counting into worker-local arrays (no sharing)
+     */
+    private long[][][][] playShare(int worker, long games) {
+        Random random = new Random(seed * 0x9E3779B97F4A7C15L + worker);
+        BotStrategy[] bots = new BotStrategy[lineup.length];
+        for (int i = 0; i < bots.length; i++) {
+            SearchConfig config = SearchConfig.fixedDepth(SEARCH_DEPTH).iterations(MCTS_ITERATIONS);
+            bots[i] = BotPlayer.createStrategy(lineup[i], new Random(random.nextLong()), config);
+        }
+        
+        long[][][][] counts = newCounters();
+        int seats = lineup.length;
+        char[] symbols = Arrays.copyOf(Game.SYMBOLS, seats);
+        int[] botAtSeat = new int[seats];
+        String[] names = new String[seats];
+        
+        // A null recorder is skipped by try-with-resources; a failing game still closes it
+        try (MoveLog.Recorder recorder = moveLog != null ? moveLog.recorder() : null) {
+            for (long g = worker; g < games; g += threads) {
+                int sizeIndex = (int) (g % boardSizes.length);
+                int shift = rotateSeats ? (int) ((g / boardSizes.length) % seats) : 0;
+                for (int seat = 0; seat < seats; seat++) {
+                    botAtSeat[seat] = (seat + shift) % seats;
+                    names[seat] = lineup[botAtSeat[seat]];
+                }
+                if (recorder != null) {
+                    recorder.startGame(boardSizes[sizeIndex], symbols, names);
+                }
+                
+                int winner = playGame(boardSizes[sizeIndex], bots, botAtSeat, symbols, recorder);
+                for (int seat = 0; seat < seats; seat++) {
+                    int outcome = winner < 0 ? DRAW : winner == seat ? WIN : LOSS;
+                    counts[sizeIndex][botAtSeat[seat]][seat][outcome]++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the move log", e);
+        }
+        return counts;
+    }
+    
+    /**
+     * Same rules as Game.startGame without any output - returns the winning seat, or -1 for a draw
+     * Moves and the result go to the recorder, if there is one, whose game is already started
+     */
+    private static int playGame(int size, BotStrategy[] bots, int[] botAtSeat, char[] symbols, MoveLog.Recorder recorder) {
+        Board board = new Board(size, symbols);
+        int seat = 0;
+        
+        while (true) {
+            Move move = bots[botAtSeat[seat]].getMove(board, symbols[seat]);
+            if (move == null || !board.isValidMove(move.getRow(), move.getCol())) {
+                throw new IllegalStateException("Bot in seat " + seat + " made an invalid move: " + move);
+            }
+            boolean won = board.makeMove(move.getRow(), move.getCol(), symbols[seat]);
+            if (recorder != null) {
+                recorder.move(move.getRow() * size + move.getCol(), seat);
+            }
+            if (won || board.isFull()) {
+                int winner = won ? seat : -1;
+                if (recorder != null) {
+                    recorder.endGame(won ? seat : MoveLog.DRAW);
+                }
+                return winner;
+            }
+            seat = (seat + 1) % symbols.length;
+        }
+    }
+    
+    private long[][][][] newCounters() {
+        return new long[boardSizes.length][lineup.length][lineup.length][3];
+    }
+    
+    private static void merge(long[][][][] into, long[][][][] from) {
+        for (int s = 0; s < into.length; s++) {
+            for (int b = 0; b < into[s].length; b++) {
+                for (int seat = 0; seat < into[s][b].length; seat++) {
+                    for (int o = 0; o < 3; o++) {
+                        into[s][b][seat][o] += from[s][b][seat][o];
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Win/draw/loss counts by strategy, board size and seat, plus throughput
+     */
+    public class Result {
+        private final long games;
+        private final long elapsedNanos;
+        private final long[][][][] counts; // [board size][lineup position][seat][win/draw/loss]
+        
+        private Result(long games, long elapsedNanos, long[][][][] counts) {
+            this.games = games;
+            this.elapsedNanos = elapsedNanos;
+            this.counts = counts;
+        }
+        
+        public long getGames() {
+            return games;
+        }
+        
+        public double getGamesPerSecond() {
+            return games / (elapsedNanos / 1e9);
+        }
+        
+        /**
+         * {wins, draws, losses} for a strategy (summed over lineup positions with that difficulty)
+         */
+        public long[] getRecord(String difficulty, int boardSize, int seat) {
+            long[] record = new long[3];
+            for (int s = 0; s < boardSizes.length; s++) {
+                if (boardSizes[s] != boardSize) continue;
+                for (int b = 0; b < lineup.length; b++) {
+                    if (!lineup[b].equals(difficulty)) continue;
+                    for (int o = 0; o < 3; o++) {
+                        record[o] += counts[s][b][seat][o];
+                    }
+                }
+            }
+            return record;
+        }
+        
+        /**
+         * Human-readable report, one line per strategy / board size / seat
+         */
+        public String format() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%d games in %.2f s (%.0f games/s)%n",
+                    games, elapsedNanos / 1e9, getGamesPerSecond()));
+            report.append(String.format("%-8s %5s %4s %10s %10s %10s %7s%n",
+                    "bot", "size", "seat", "wins", "draws", "losses", "win%"));
+            
+            for (String difficulty : new LinkedHashSet<>(Arrays.asList(lineup))) {
+                for (int size : Arrays.stream(boardSizes).distinct().toArray()) {
+                    for (int seat = 0; seat < lineup.length; seat++) {
+                        long[] r = getRecord(difficulty, size, seat);
+                        long played = r[WIN] + r[DRAW] + r[LOSS];
+                        if (played == 0) continue;
+                        report.append(String.format("%-8s %5d %4d %10d %10d %10d %6.1f%%%n",
+                                difficulty, size, seat, r[WIN], r[DRAW], r[LOSS], 100.0 * r[WIN] / played));
+                    }
+                }
+            }
+            return report.toString();
+        }
+    }
+    
+    /**
+     * Usage: java Simulation games sizes bot1 bot2 [bot3 ...] [--threads=N] [--seed=S] [--fixed-seats] [--log=FILE] [--metrics]
+     * Example: java Simulation 1000000 3,4 easy medium --seed=42 --log=games.bin
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length < 4) {
+            System.out.println("Usage: java Simulation games sizes bot1 bot2 [bot3 ...] [--threads=N] [--seed=S] [--fixed-seats] [--log=FILE] [--metrics]");
+            return;
+        }
+        
+        long games = Long.parseLong(args[0]);
+        int[] sizes = Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray();
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        boolean rotateSeats = true;
+        String logFile = null;
+        boolean printMetrics = false;
+        List<String> lineup = new ArrayList<>();
+        
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.equals("--fixed-seats")) {
+                rotateSeats = false;
+            } else if (arg.startsWith("--log=")) {
+                logFile = arg.substring("--log=".length());
+            } else if (arg.equals("--metrics")) {
+                printMetrics = true;
+            } else {
+                lineup.add(arg.toLowerCase());
+            }
+        }
+        
+        Simulation simulation = new Simulation(sizes, lineup.toArray(new String[0]), rotateSeats, threads, seed);
+        if (logFile == null) {
+            System.out.print(simulation.run(games).format());
+        } else {
+            try (MoveLog log = MoveLog.open(Paths.get(logFile))) {
+                simulation.setMoveLog(log);
+                System.out.print(simulation.run(games).format());
+            }
+        }
+        if (printMetrics) {
+            System.out.print(Metrics.snapshot());
+        }
+    }
+}
\ No newline at end of file
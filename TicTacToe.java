@@ -1,3 +1,4 @@
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -7,7 +8,12 @@ import java.util.*;
 public class TicTacToe {
     private static Scanner scanner = new Scanner(System.in);
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--server")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
         System.out.println("=== Enhanced Tic-Tac-Toe Game Setup ===");
         
         try {
@@ -21,9 +27,21 @@ public class TicTacToe {
             List<Player> players = createPlayers(numPlayers);
             
             // Create and start game
-            Game game = new Game(players, boardSize);
-            game.startGame();
-            
+            Game game = new Game(players, boardSize, parseTimeControl(args, numPlayers));
+            String render = parseOption(args, "--render=");
+            if (render != null) {
+                game.setRenderer(new BoardRenderer(System.out, BoardRenderer.Mode.valueOf(render.toUpperCase())));
+            }
+            String logFile = parseOption(args, "--log=");
+            if (logFile == null) {
+                game.startGame();
+            } else {
+                try (MoveLog log = MoveLog.open(Paths.get(logFile)); MoveLog.Recorder recorder = log.recorder()) {
+                    game.setMoveLog(recorder);
+                    game.startGame();
+                }
+            }
+        
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
         } finally {
@@ -31,6 +49,29 @@ public class TicTacToe {
         }
     }
     
+    /**
+     * Bot clocks from the command line: --move-time=MS (per move) and --game-time=MS (per bot and game)
+     */
+    private static TimeControl parseTimeControl(String[] args, int numPlayers) {
+        String moveTime = parseOption(args, "--move-time=");
+        String gameTime = parseOption(args, "--game-time=");
+        return new TimeControl(numPlayers,
+                moveTime != null ? Long.parseLong(moveTime) : TimeControl.UNLIMITED,
+                gameTime != null ? Long.parseLong(gameTime) : TimeControl.UNLIMITED);
+    }
+    
+    /**
+     * Value of a --name=value command-line option, or null if it is not given
+     */
+    private static String parseOption(String[] args, String prefix) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+    
     /**
      * Gets board size from user with validation
      */
@@ -40,7 +81,9 @@ public class TicTacToe {
                 System.out.print("Enter board size (NxN, minimum 3): ");
                 int size = scanner.nextInt();
                 
-                if (size >= 3) {
+                if (size > Board.MAX_SIZE) {
+                    System.out.println("Board size can be at most " + Board.MAX_SIZE + "x" + Board.MAX_SIZE + "!");
+                } else if (size >= 3) {
                     return size;
                 } else {
                     System.out.println("Board size must be at least 3x3!");
@@ -133,12 +176,14 @@ public class TicTacToe {
      */
     private static String getBotDifficulty() {
         while (true) {
-            System.out.print("Enter bot difficulty (easy/medium/hard): ");
+            System.out.print("Enter bot difficulty (easy/medium/hard/mcts/perfect/solver): ");
             String difficulty = scanner.nextLine().toLowerCase().trim();
             
             if (difficulty.equals("easy") || difficulty.equals("e") ||
                 difficulty.equals("medium") || difficulty.equals("m") ||
-                difficulty.equals("hard") || difficulty.equals("h")) {
+                difficulty.equals("hard") || difficulty.equals("h") ||
+                difficulty.equals("mcts") || difficulty.equals("perfect") ||
+                difficulty.equals("solver")) {
                 
                 // Normalize the input
                 if (difficulty.equals("e")) return "easy";
@@ -147,7 +192,7 @@ public class TicTacToe {
                 
                 return difficulty;
             } else {
-                System.out.println("Please enter 'easy', 'medium', or 'hard'!");
+                System.out.println("Please enter 'easy', 'medium', 'hard', 'mcts', 'perfect' or 'solver'!");
             }
         }
     }
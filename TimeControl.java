@@ -0,0 +1,67 @@
+/**
+ * Clocks for bot moves in a Game - a limit per move and a budget per player for the whole game
+ * Design Decision: A bot is never flagged for running out of time; its search is cut short and
+ * the best move found so far is played, so every turn has a bounded latency
+ * Design Decision: The game budget is spread over the moves the player still has to make
+ * (empty cells / players), and the per-move limit caps each share
+ */
+public class TimeControl {
+    public static final long UNLIMITED = 0;
+    public static final long MIN_MOVE_MILLIS = 1; // Even a flagged clock gets the cheapest search
+    
+    private final long perMoveMillis;
+    private final long perGameMillis;
+    private final long[] usedNanos;
+    
+    /**
+     * @param perMoveMillis limit for one move, UNLIMITED for none
+     * @param perGameMillis budget per player for the whole game, UNLIMITED for none
+     */
+    public TimeControl(int players, long perMoveMillis, long perGameMillis) {
+        if (perMoveMillis < 0 || perGameMillis < 0) {
+            throw new IllegalArgumentException("Time limits cannot be negative");
+        }
+        this.perMoveMillis = perMoveMillis;
+        this.perGameMillis = perGameMillis;
+        this.usedNanos = new long[players];
+    }
+    
+    public static TimeControl unlimited(int players) {
+        return new TimeControl(players, UNLIMITED, UNLIMITED);
+    }
+    
+    public boolean isUnlimited() {
+        return perMoveMillis == UNLIMITED && perGameMillis == UNLIMITED;
+    }
+    
+    /**
+     * Time the player may spend on its next move, UNLIMITED if neither clock is set
+     */
+    public long allowanceMillis(int player, Board board) {
+        long allowance = perMoveMillis;
+        if (perGameMillis != UNLIMITED) {
+            int movesLeft = Math.max(1, (board.getEmptyCount() + board.getPlayerCount() - 1) / board.getPlayerCount());
+            long share = Math.max(MIN_MOVE_MILLIS, getRemainingMillis(player) / movesLeft);
+            allowance = allowance == UNLIMITED ? share : Math.min(allowance, share);
+        }
+        return allowance;
+    }
+    
+    /**
+     * Charges a finished move to the player's game clock
+     */
+    public void charge(int player, long elapsedNanos) {
+        usedNanos[player] += elapsedNanos;
+    }
+    
+    public long getUsedMillis(int player) {
+        return usedNanos[player] / 1_000_000L;
+    }
+    
+    /**
+     * Time left on the player's game clock (never negative), or Long.MAX_VALUE without one
+     */
+    public long getRemainingMillis(int player) {
+        return perGameMillis == UNLIMITED ? Long.MAX_VALUE : Math.max(0, perGameMillis - getUsedMillis(player));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table for the minimax search
+ * Design Decision: Open array indexed by the low bits of the Zobrist hash, one entry per slot,
+ * replace-by-depth with a generation stamp so entries from earlier moves of the game can be reused
+ * but never block the current search from storing deeper results
+ * Design Decision: Each entry also remembers the best move found at that node, so a re-search of
+ * the position (next iteration, next turn, another thread) tries it first
+ */
+class TranspositionTable {
+    static final int EXACT = 0;
+    static final int LOWER_BOUND = 1; // true score >= stored score
+    static final int UPPER_BOUND = 2; // true score <= stored score
+    
+    static final int DEFAULT_SIZE = 1 << 18;
+    static final int NO_MOVE = -1;
+    
+    // Packed entry layout: score (24 bits, signed), depth (8), bound (2), generation (8), move + 1 (21)
+    private static final int MAX_MOVE = (1 << 21) - 2;
+    
+    private final long[] keys; // key ^ data, so a torn entry never validates
+    private final long[] data;
+    private final int mask;
+    private int generation;
+    
+    /**
+     * Creates a table with the given number of entries (rounded up to a power of two)
+     */
+    TranspositionTable(int entries) {
+        if (entries < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 entry");
+        }
+        int capacity = Integer.highestOneBit(entries);
+        if (capacity < entries) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.data = new long[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    int size() {
+        return keys.length;
+    }
+    
+    /**
+     * Starts a new search - older entries become preferred replacement victims
+     */
+    void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+    
+    /**
+     * Returns the packed entry for a key, or 0 if there is none
+     * Use score/depth/bound/move to unpack it
+     */
+    long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        if (entry == 0 || (keys[index] ^ entry) != key) {
+            return 0;
+        }
+        return entry;
+    }
+    
+    /**
+     * Stores a search result; move is the best cell found there, or NO_MOVE
+     */
+    void store(long key, int score, int depth, int bound, int move) {
+        int index = (int) key & mask;
+        long existing = data[index];
+        
+        // Keep a deeper result from the current search, otherwise replace
+        if (existing != 0 && generationOf(existing) == generation
+                && (keys[index] ^ existing) != key && depth(existing) > depth) {
+            return;
+        }
+        
+        long storedMove = move >= 0 && move <= MAX_MOVE ? move + 1 : 0; // cells past 21 bits are not kept
+        long entry = (score & 0xFFFFFFL)
+                | ((long) (depth & 0xFF) << 24)
+                | ((long) bound << 32)
+                | ((long) generation << 34)
+                | (storedMove << 42)
+                | (1L << 63); // never 0, so an empty slot is distinguishable
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+    
+    /**
+     * Drops every entry
+     */
+    void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+    
+    static int score(long entry) {
+        return (int) (entry << 40 >> 40); // sign-extend the low 24 bits
+    }
+    
+    static int depth(long entry) {
+        return (int) (entry >>> 24) & 0xFF;
+    }
+    
+    static int bound(long entry) {
+        return (int) (entry >>> 32) & 0x3;
+    }
+    
+    /**
+     * Best cell stored with the entry, or NO_MOVE
+     */
+    static int move(long entry) {
+        return ((int) (entry >>> 42) & 0x1FFFFF) - 1;
+    }
+    
+    private static int generationOf(long entry) {
+        return (int) (entry >>> 34) & 0xFF;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+import java.util.Arrays;
+
+/**
+ * Turn order as seen by a bot - which symbols are playing and who moves after whom
+ * Design Decision: Read from the board's player registry so strategies follow Game's real rotation;
+ * a board that knows fewer than two players falls back to the classic X/O pairing
+ */
+final class TurnOrder {
+    private final char[] symbols;
+    
+    private TurnOrder(char[] symbols) {
+        this.symbols = symbols;
+    }
+    
+    static TurnOrder of(Board board, char symbol) {
+        int count = board.getPlayerCount();
+        char[] symbols = new char[Math.max(count, 1) + 1];
+        int size = 0;
+        boolean hasSymbol = false;
+        
+        for (int i = 0; i < count; i++) {
+            symbols[size++] = board.getPlayerSymbol(i);
+            hasSymbol |= board.getPlayerSymbol(i) == symbol;
+        }
+        if (!hasSymbol) {
+            symbols[size++] = symbol;
+        }
+        if (size < 2) {
+            symbols[size++] = (symbol == 'X') ? 'O' : 'X';
+        }
+        return new TurnOrder(Arrays.copyOf(symbols, size));
+    }
+    
+    int size() {
+        return symbols.length;
+    }
+    
+    char symbolAt(int index) {
+        return symbols[index];
+    }
+    
+    int indexOf(char symbol) {
+        for (int i = 0; i < symbols.length; i++) {
+            if (symbols[i] == symbol) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Index of the player who moves after the player at index
+     */
+    int next(int index) {
+        return index + 1 == symbols.length ? 0 : index + 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+import java.util.Random;
+
+/**
+ * Benchmark workload over the real game classes (see benchmarks.Workload for why this is separate)
+ * Positions are generated from a fixed seed so every run measures the same boards
+ */
+public class GameWorkload implements benchmarks.Workload {
+    private static final int POSITIONS = 16; // power of two, cycled with a mask
+    private static final int HARD_DEPTH = 3;
+    private static final int HARD_TABLE_SIZE = 1 << 16;
+    
+    private final Board[] positions = new Board[POSITIONS];
+    private final char[] toMove = new char[POSITIONS];
+    private int current;
+    
+    private EasyBotStrategy easy;
+    private MediumBotStrategy medium;
+    private HardBotStrategy hard;
+    
+    @Override
+    public void setUp(int boardSize, double fillRatio, long seed) {
+        Random random = new Random(seed);
+        int moves = (int) Math.round(boardSize * boardSize * fillRatio);
+        
+        for (int p = 0; p < POSITIONS; p++) {
+            positions[p] = randomPosition(boardSize, moves, random);
+            toMove[p] = moves % 2 == 1 ? 'O' : 'X';
+        }
+        
+        easy = new EasyBotStrategy(new Random(seed));
+        medium = new MediumBotStrategy(new Random(seed));
+        hard = new HardBotStrategy(SearchConfig.fixedDepth(HARD_DEPTH).tableSize(HARD_TABLE_SIZE));
+        current = 0;
+    }
+    
+    /**
+     * Alternating X/O moves on random empty cells, retried until nobody has won
+     */
+    private static Board randomPosition(int size, int moves, Random random) {
+        while (true) {
+            Board board = new Board(size, 'X', 'O');
+            char symbol = 'X';
+            boolean won = false;
+            
+            for (int m = 0; m < moves && !won; m++) {
+                int row;
+                int col;
+                do {
+                    row = random.nextInt(size);
+                    col = random.nextInt(size);
+                } while (!board.isValidMove(row, col));
+                
+                won = board.makeMove(row, col, symbol);
+                symbol = symbol == 'X' ? 'O' : 'X';
+            }
+            if (!won && !board.isFull()) {
+                return board;
+            }
+        }
+    }
+    
+    @Override
+    public void clearCache() {
+        hard.clearCache();
+    }
+    
+    /**
+     * Index of the position for this call, advancing to the next one - a mask, no branch
+     */
+    private int step() {
+        int position = current;
+        current = (position + 1) & (POSITIONS - 1);
+        return position;
+    }
+    
+    @Override
+    public boolean checkWin() {
+        int p = step();
+        return positions[p].checkWin(toMove[p]);
+    }
+    
+    @Override
+    public boolean isFull() {
+        int p = step();
+        return positions[p].isFull();
+    }
+    
+    @Override
+    public Object copy() {
+        int p = step();
+        return positions[p].copy();
+    }
+    
+    @Override
+    public Object easyMove() {
+        int p = step();
+        return easy.getMove(positions[p], toMove[p]);
+    }
+    
+    @Override
+    public Object mediumMove() {
+        int p = step();
+        return medium.getMove(positions[p], toMove[p]);
+    }
+    
+    @Override
+    public Object hardMove() {
+        int p = step();
+        return hard.getMove(positions[p], toMove[p]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Board primitives - win check, draw check and the copy used by search code
+ * Each call moves on to the next prepared position itself - per-invocation setup would cost
+ * more than these nanosecond operations
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"3", "4", "8", "16", "64"})
+    public int boardSize;
+    
+    @Param({"0.25", "0.5", "0.75"})
+    public double fillRatio;
+    
+    private Workload workload;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.load();
+        workload.setUp(boardSize, fillRatio, BenchmarkRunner.SEED);
+    }
+    
+    @Benchmark
+    public boolean checkWin() {
+        return workload.checkWin();
+    }
+    
+    @Benchmark
+    public boolean isFull() {
+        return workload.isFull();
+    }
+    
+    @Benchmark
+    public Object copy() {
+        return workload.copy();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One getMove call per strategy on the seeded positions
+ * The hard bot runs at a fixed depth so results measure search speed, not the time budget
+ * Each call moves on to the next prepared position itself, like BoardBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyBenchmark {
+    @Param({"3", "4", "8", "16", "64"})
+    public int boardSize;
+    
+    @Param({"0.25", "0.5", "0.75"})
+    public double fillRatio;
+    
+    private Workload workload;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.load();
+        workload.setUp(boardSize, fillRatio, BenchmarkRunner.SEED);
+    }
+    
+    /**
+     * Empties the hard bot's table, so each iteration starts from cold searches
+     */
+    @Setup(Level.Iteration)
+    public void clearCache() {
+        workload.clearCache();
+    }
+    
+    @Benchmark
+    public Object easyGetMove() {
+        return workload.easyMove();
+    }
+    
+    @Benchmark
+    public Object mediumGetMove() {
+        return workload.mediumMove();
+    }
+    
+    @Benchmark
+    public Object hardGetMove() {
+        return workload.hardMove();
+    }
+}
\ No newline at end of file
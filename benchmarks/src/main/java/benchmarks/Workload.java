@@ -0,0 +1,41 @@
+package benchmarks;
+
+/**
+ * Bridge from the JMH benchmarks to the game classes
+ * Design Decision: JMH refuses benchmarks in the default package, and packaged code cannot name
+ * the game's default-package classes - so the measured calls live in GameWorkload (default package)
+ * behind this interface, loaded once per trial. The call site stays monomorphic and gets inlined.
+ */
+public interface Workload {
+    /**
+     * Builds a fixed set of positions with roughly fillRatio of the cells taken and no winner yet
+     */
+    void setUp(int boardSize, double fillRatio, long seed);
+    
+    // Each measured call below uses the next prepared position, cycling through them
+    
+    /**
+     * Clears the hard bot's transposition table
+     */
+    void clearCache();
+    
+    boolean checkWin();
+    
+    boolean isFull();
+    
+    Object copy();
+    
+    Object easyMove();
+    
+    Object mediumMove();
+    
+    Object hardMove();
+    
+    static Workload load() {
+        try {
+            return (Workload) Class.forName("GameWorkload").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("GameWorkload is missing from the benchmark classpath", e);
+        }
+    }
+}
\ No newline at end of file